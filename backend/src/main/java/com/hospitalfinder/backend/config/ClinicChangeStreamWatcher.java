@@ -0,0 +1,189 @@
+package com.hospitalfinder.backend.config;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.hospitalfinder.backend.entity.Clinic;
+import com.hospitalfinder.backend.service.ClinicCatalog;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Follows the {@code clinics} collection through a MongoDB change stream and
+ * applies each change to the {@link ClinicCatalog}, so edits made directly in the
+ * database (or by another instance) reach the in-memory snapshot and indexes.
+ *
+ * Change streams need a replica set (Atlas, or a single-node local replica set).
+ * On a standalone server the watcher logs a warning and stops; the catalog then
+ * only sees writes made through this application. After any other error the
+ * stream is reopened and the catalog invalidated, since events may have been
+ * missed in between.
+ */
+@Component
+@Order(4) // After the seeders and the location backfill
+@RequiredArgsConstructor
+public class ClinicChangeStreamWatcher implements CommandLineRunner, DisposableBean {
+
+    // "The $changeStream stage is only supported on replica sets"
+    private static final int CHANGE_STREAM_NOT_SUPPORTED = 40573;
+    private static final long MAX_AWAIT_SECONDS = 5;
+    private static final long MAX_BACKOFF_MILLIS = 60_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ClinicCatalog clinicCatalog;
+
+    @Value("${clinics.catalog.change-stream.enabled:true}")
+    private boolean enabled;
+
+    private volatile boolean running = false;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+    private Thread worker;
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            System.err.println("⚠ Clinic change stream disabled; "
+                    + "clinic catalog will only see writes made through this app");
+            return;
+        }
+        running = true;
+        worker = new Thread(this::watch, "clinic-change-stream");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> current = cursor;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (Exception ignored) {
+                // Shutting down
+            }
+        }
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void watch() {
+        long backoff = 1_000;
+        while (running) {
+            try {
+                cursor = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Clinic.class))
+                        // Same shape as the catalog's own loads: no embedded doctors
+                        .watch(List.of(Aggregates.project(Projections.exclude("fullDocument.doctors"))))
+                        .fullDocument(FullDocument.UPDATE_LOOKUP)
+                        .maxAwaitTime(MAX_AWAIT_SECONDS, TimeUnit.SECONDS)
+                        .cursor();
+                // Anything written before the stream opened is picked up by a fresh load
+                clinicCatalog.invalidate();
+                System.out.println("✓ Watching clinic changes");
+                backoff = 1_000;
+
+                while (running) {
+                    ChangeStreamDocument<Document> event = cursor.tryNext();
+                    if (event != null && !apply(event)) {
+                        break;
+                    }
+                }
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == CHANGE_STREAM_NOT_SUPPORTED) {
+                    System.err.println("⚠ Change streams not supported (standalone MongoDB); "
+                            + "clinic catalog will only see writes made through this app");
+                    running = false;
+                    return;
+                }
+                backoff = retryAfter(e, backoff);
+            } catch (Exception e) {
+                backoff = retryAfter(e, backoff);
+            } finally {
+                closeCursor();
+            }
+        }
+    }
+
+    /**
+     * Apply one change event. Returns false if the stream was invalidated and
+     * must be reopened.
+     */
+    private boolean apply(ChangeStreamDocument<Document> event) {
+        switch (event.getOperationType()) {
+            case INSERT, UPDATE, REPLACE -> {
+                Document document = event.getFullDocument();
+                if (document != null) {
+                    clinicCatalog.upsert(mongoTemplate.getConverter().read(Clinic.class, document));
+                } else {
+                    // Deleted again before the lookup ran
+                    clinicCatalog.remove(idOf(event));
+                }
+            }
+            case DELETE -> clinicCatalog.remove(idOf(event));
+            case DROP, RENAME, DROP_DATABASE, INVALIDATE -> {
+                clinicCatalog.invalidate();
+                return false;
+            }
+            default -> {
+                // Index and other DDL events do not affect clinic documents
+            }
+        }
+        return true;
+    }
+
+    private static String idOf(ChangeStreamDocument<Document> event) {
+        if (event.getDocumentKey() == null) {
+            return null;
+        }
+        BsonValue id = event.getDocumentKey().get("_id");
+        if (id == null) {
+            return null;
+        }
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : null;
+    }
+
+    private long retryAfter(Exception e, long backoff) {
+        if (!running) {
+            return backoff;
+        }
+        System.err.println("⚠ Clinic change stream failed, retrying in " + backoff + " ms: " + e.getMessage());
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+        return Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+    }
+
+    private void closeCursor() {
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> current = cursor;
+        cursor = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (Exception ignored) {
+                // Already closed or connection lost
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.hospitalfinder.backend.config;
+
+import java.util.List;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.hospitalfinder.backend.entity.Clinic;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * One-time migration: fills the GeoJSON {@code location} field for clinics saved
+ * before it existed. Only touches documents that have coordinates but no
+ * location, so it is a no-op once every clinic is migrated.
+ */
+@Component
+@Order(3) // After SampleDataSeeder so seeded clinics are migrated too
+@RequiredArgsConstructor
+public class ClinicLocationBackfill implements CommandLineRunner {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(String... args) {
+        try {
+            Query missing = new Query(Criteria.where("location").exists(false)
+                    .and("latitude").ne(null)
+                    .and("longitude").ne(null));
+            missing.fields().include("latitude").include("longitude");
+
+            List<Clinic> clinics = mongoTemplate.find(missing, Clinic.class);
+            if (clinics.isEmpty()) {
+                return;
+            }
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Clinic.class);
+            for (Clinic clinic : clinics) {
+                bulk.updateOne(new Query(Criteria.where("_id").is(clinic.getId())),
+                        new Update().set("location", new GeoJsonPoint(clinic.getLongitude(), clinic.getLatitude())));
+            }
+            bulk.execute();
+
+            System.out.println("✓ Backfilled GeoJSON location for " + clinics.size() + " clinics");
+        } catch (Exception e) {
+            System.err.println("⚠ Clinic location backfill failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.hospitalfinder.backend.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Travel-time model for clinic ETAs ({@code clinics.eta.*}).
+ */
+@Component
+@ConfigurationProperties(prefix = "clinics.eta")
+@Getter
+@Setter
+public class EtaProperties {
+
+    /**
+     * Speed per stretch of the trip, in order. Each band covers the distance up to
+     * {@code upToKm}; the last band has no limit.
+     */
+    private List<Band> bands = new ArrayList<>(List.of(
+            new Band(5.0, 20.0),
+            new Band(20.0, 30.0),
+            new Band(null, 40.0)));
+
+    /**
+     * Multiplier on every band speed, by lower-case clinic city (e.g. 0.8 for
+     * congested cities). Cities not listed use 1.0.
+     */
+    private Map<String, Double> citySpeedFactors = new HashMap<>();
+
+    /**
+     * Longest trip covered by the precomputed table; longer trips are extrapolated
+     * at the last band's speed.
+     */
+    private double maxTableKm = 200.0;
+
+    @Getter
+    @Setter
+    public static class Band {
+        private Double upToKm;
+        private double speedKmh;
+
+        public Band() {
+        }
+
+        public Band(Double upToKm, double speedKmh) {
+            this.upToKm = upToKm;
+            this.speedKmh = speedKmh;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeospatialIndex;
 import org.springframework.data.mongodb.core.index.IndexOperations;
 import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.domain.Sort;
@@ -12,11 +14,19 @@ import com.hospitalfinder.backend.entity.User;
 import com.hospitalfinder.backend.entity.Clinic;
 import com.hospitalfinder.backend.entity.Doctor;
 import com.hospitalfinder.backend.entity.Appointment;
+import com.hospitalfinder.backend.entity.AppointmentRollup;
+import com.hospitalfinder.backend.entity.IdempotencyRecord;
 import com.hospitalfinder.backend.entity.Review;
 import com.hospitalfinder.backend.entity.Specialization;
 import com.hospitalfinder.backend.entity.MedicalRecord;
 import com.hospitalfinder.backend.entity.Role;
+import com.hospitalfinder.backend.entity.SlotHold;
 import com.hospitalfinder.backend.repository.UserRepository;
+import com.hospitalfinder.backend.service.AppointmentBookingService;
+import com.hospitalfinder.backend.service.AppointmentFeedService;
+import com.hospitalfinder.backend.service.AppointmentRollupService;
+import com.hospitalfinder.backend.service.IdempotencyService;
+import com.hospitalfinder.backend.service.SlotHoldService;
 
 @Configuration
 public class MongoDbConfig {
@@ -39,6 +49,8 @@ public class MongoDbConfig {
             IndexOperations clinicIndexes = mongoTemplate.indexOps(Clinic.class);
             clinicIndexes.ensureIndex(new Index().on("city", Sort.Direction.ASC));
             clinicIndexes.ensureIndex(new Index().on("name", Sort.Direction.ASC));
+            // Used by $geoNear in ClinicService.getClinicsSortedByDistance
+            clinicIndexes.ensureIndex(new GeospatialIndex("location").typed(GeoSpatialIndexType.GEO_2DSPHERE));
 
             // Doctor indexes
             IndexOperations doctorIndexes = mongoTemplate.indexOps(Doctor.class);
@@ -48,8 +60,20 @@ public class MongoDbConfig {
             // Appointment indexes
             IndexOperations appointmentIndexes = mongoTemplate.indexOps(Appointment.class);
             appointmentIndexes.ensureIndex(new Index().on("userId", Sort.Direction.ASC));
-            appointmentIndexes.ensureIndex(new Index().on("clinicId", Sort.Direction.ASC));
-            appointmentIndexes.ensureIndex(new Index().on("doctorId", Sort.Direction.ASC));
+            // scope + appointmentTime + _id, used by the dashboard feeds, stats and listings
+            AppointmentFeedService.indexes().forEach(appointmentIndexes::ensureIndex);
+
+            // Appointment rollup indexes
+            IndexOperations rollupIndexes = mongoTemplate.indexOps(AppointmentRollup.class);
+            AppointmentRollupService.indexes().forEach(rollupIndexes::ensureIndex);
+
+            // Slot hold indexes (TTL expiry and availability lookups)
+            IndexOperations slotHoldIndexes = mongoTemplate.indexOps(SlotHold.class);
+            SlotHoldService.indexes().forEach(slotHoldIndexes::ensureIndex);
+
+            // Idempotency key expiry
+            IndexOperations idempotencyIndexes = mongoTemplate.indexOps(IdempotencyRecord.class);
+            IdempotencyService.indexes().forEach(idempotencyIndexes::ensureIndex);
 
             // Review indexes
             IndexOperations reviewIndexes = mongoTemplate.indexOps(Review.class);
@@ -69,6 +93,15 @@ public class MongoDbConfig {
         } catch (Exception e) {
             System.out.println("⚠ Note: Some indexes may already exist. This is expected on subsequent runs.");
         }
+
+        // Separate so existing double bookings only cost this index, not the ones above
+        try {
+            mongoTemplate.indexOps(Appointment.class).ensureIndex(AppointmentBookingService.slotIndex());
+            System.out.println("✓ Appointment slot index ready");
+        } catch (Exception e) {
+            System.err.println("⚠ Could not create unique appointment slot index (duplicate BOOKED appointments "
+                    + "for a doctor and time?): " + e.getMessage());
+        }
     }
 
     private void seedAdminUser(UserRepository userRepository) {
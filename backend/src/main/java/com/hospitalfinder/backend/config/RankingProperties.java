@@ -0,0 +1,40 @@
+package com.hospitalfinder.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Weights for the {@code sort=best} clinic score ({@code clinics.ranking.*}).
+ * Each signal is scaled to 0..1 before weighting.
+ */
+@Component
+@ConfigurationProperties(prefix = "clinics.ranking")
+@Getter
+@Setter
+public class RankingProperties {
+
+    /** Share of the requested specializations the clinic offers. */
+    private double matchWeight = 0.4;
+
+    /** Proximity, {@code 1 / (1 + km / distanceHalfKm)}. */
+    private double distanceWeight = 0.25;
+
+    /** Rating out of 5. */
+    private double ratingWeight = 0.2;
+
+    /** Review volume on a log scale, saturating at {@code reviewsCap}. */
+    private double reviewsWeight = 0.1;
+
+    /** Doctors on staff, saturating at {@code doctorsCap}. */
+    private double availabilityWeight = 0.05;
+
+    /** Distance at which proximity scores one half. */
+    private double distanceHalfKm = 5.0;
+
+    private int reviewsCap = 1000;
+
+    private int doctorsCap = 5;
+}
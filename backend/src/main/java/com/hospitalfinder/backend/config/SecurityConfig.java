@@ -63,6 +63,8 @@ public class SecurityConfig {
                         .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/appointments").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.PUT, "/api/appointments/**").authenticated()
                         .requestMatchers(org.springframework.http.HttpMethod.DELETE, "/api/appointments/**").authenticated()
+                        // Free-slot lookup is read-only and used by the public booking flow
+                        .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/availability/query").permitAll()
                         // Medical records endpoints - permit for chat workflow
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/medical-records/user/**").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/medical-records").permitAll()
@@ -2,7 +2,10 @@ package com.hospitalfinder.backend.controller;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -12,6 +15,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -20,10 +24,16 @@ import com.hospitalfinder.backend.dto.AppointmentResponseDTO;
 import com.hospitalfinder.backend.entity.Appointment;
 import com.hospitalfinder.backend.entity.Clinic;
 import com.hospitalfinder.backend.entity.User;
+import com.hospitalfinder.backend.exception.SlotAlreadyBookedException;
 import com.hospitalfinder.backend.repository.AppointmentRepository;
 import com.hospitalfinder.backend.repository.ClinicRepository;
 import com.hospitalfinder.backend.repository.DoctorRepository;
 import com.hospitalfinder.backend.repository.UserRepository;
+import com.hospitalfinder.backend.service.AppointmentBookingService;
+import com.hospitalfinder.backend.service.AppointmentEnrichmentService;
+import com.hospitalfinder.backend.service.IdempotencyService;
+import com.hospitalfinder.backend.service.SlotAvailabilityService;
+import com.hospitalfinder.backend.service.SlotHoldService;
 
 @RestController
 @RequestMapping("/api/appointments")
@@ -37,10 +47,29 @@ public class AppointmentController {
     private ClinicRepository clinicRepository;
     @Autowired
     private DoctorRepository doctorRepository;
+    @Autowired
+    private AppointmentBookingService appointmentBookingService;
+    @Autowired
+    private AppointmentEnrichmentService appointmentEnrichmentService;
+    @Autowired
+    private IdempotencyService idempotencyService;
+    @Autowired
+    private SlotHoldService slotHoldService;
 
+    private static final String HELD = "HELD";
+    private static final String SLOT_HELD_MESSAGE = "This time slot is being booked by someone else; please pick another slot";
+
+    /**
+     * Book an appointment. Clients may send an Idempotency-Key header so that
+     * retries replay the first response instead of booking again.
+     */
     @PostMapping
-    public ResponseEntity<?> bookAppointment(@RequestBody AppointmentRequestDTO dto) {
+    public ResponseEntity<?> bookAppointment(@RequestBody AppointmentRequestDTO dto,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("appointments", idempotencyKey, dto, () -> book(dto));
+    }
 
+    private ResponseEntity<?> book(AppointmentRequestDTO dto) {
         // Validate User (Optional - fail only if provided and invalid)
         if (dto.getUserId() != null && !dto.getUserId().isEmpty()) {
             var userOpt = userRepository.findById(dto.getUserId());
@@ -67,12 +96,9 @@ public class AppointmentController {
         if (time.isBefore(LocalDateTime.now()))
             return ResponseEntity.badRequest().body("Cannot book in the past");
 
-        // Check duplicate for doctor
-        boolean exists = appointmentRepository.existsByDoctorIdAndAppointmentTime(
-                dto.getDoctorId(), time);
-
-        if (exists)
-            return ResponseEntity.badRequest().body("This time slot is already booked");
+        // A chat booking in progress holds this slot until it confirms or the hold expires
+        if (slotHoldService.isHeld(doctorOpt.get().getId(), time, null))
+            return ResponseEntity.badRequest().body(SLOT_HELD_MESSAGE);
 
         // Create Appointment
         Appointment appointment = new Appointment();
@@ -82,7 +108,6 @@ public class AppointmentController {
         appointment.setClinicId(clinicOpt.get().getId());
         appointment.setDoctorId(doctorOpt.get().getId());
         appointment.setAppointmentTime(time);
-        appointment.setStatus("BOOKED");
 
         // Patient details
         appointment.setPatientName(dto.getPatientName());
@@ -92,7 +117,12 @@ public class AppointmentController {
         appointment.setPatientPhone(dto.getPatientPhone());
         appointment.setReason(dto.getReason());
 
-        appointment = appointmentRepository.save(appointment);
+        // The unique slot index decides between concurrent bookings
+        try {
+            appointment = appointmentBookingService.book(appointment);
+        } catch (SlotAlreadyBookedException e) {
+            return ResponseEntity.badRequest().body("This time slot is already booked");
+        }
 
         return ResponseEntity.ok(new AppointmentResponseDTO(appointment));
     }
@@ -103,14 +133,7 @@ public class AppointmentController {
         if (user == null)
             return ResponseEntity.ok("User not found");
         var appointments = appointmentRepository.findByUserId(userId);
-        var responseList = appointments.stream()
-                .map(apt -> {
-                    Clinic clinic = clinicRepository.findById(apt.getClinicId()).orElse(null);
-                    var doctor = doctorRepository.findById(apt.getDoctorId()).orElse(null);
-                    return new AppointmentResponseDTO(apt, clinic, doctor, user);
-                })
-                .toList();
-        return ResponseEntity.ok(responseList);
+        return ResponseEntity.ok(appointmentEnrichmentService.enrich(appointments));
     }
 
     @GetMapping("/clinic/{clinicId}")
@@ -119,14 +142,7 @@ public class AppointmentController {
         if (clinic == null)
             return ResponseEntity.ok("Clinic not found");
         var appointments = appointmentRepository.findByClinicId(clinicId);
-        var responseList = appointments.stream()
-                .map(apt -> {
-                    var doctor = doctorRepository.findById(apt.getDoctorId()).orElse(null);
-                    var user = apt.getUserId() != null ? userRepository.findById(apt.getUserId()).orElse(null) : null;
-                    return new AppointmentResponseDTO(apt, clinic, doctor, user);
-                })
-                .toList();
-        return ResponseEntity.ok(responseList);
+        return ResponseEntity.ok(appointmentEnrichmentService.enrich(appointments));
     }
 
     @GetMapping("/doctor/{doctorId}/date/{date}")
@@ -140,15 +156,18 @@ public class AppointmentController {
             List<Appointment> appointments = appointmentRepository.findByDoctorAndDate(doctorId, startOfDay, endOfDay);
             System.out.println("Found " + appointments.size() + " appointments");
             // Filter only BOOKED appointments
-            var doctor = doctorRepository.findById(doctorId).orElse(null);
-            var bookedAppointments = appointments.stream()
+            var bookedAppointments = new ArrayList<>(appointmentEnrichmentService.enrich(appointments.stream()
                     .filter(apt -> "BOOKED".equalsIgnoreCase(apt.getStatus()))
-                    .map(apt -> {
-                        Clinic clinic = clinicRepository.findById(apt.getClinicId()).orElse(null);
-                        var user = apt.getUserId() != null ? userRepository.findById(apt.getUserId()).orElse(null) : null;
-                        return new AppointmentResponseDTO(apt, clinic, doctor, user);
-                    })
-                    .toList();
+                    .toList()));
+            // Slots held by chat bookings in progress are listed as HELD so pickers do not offer them
+            long held = slotHoldService.heldSlots(doctorId, appointmentDate, null);
+            for (String label : SlotAvailabilityService.labels(held)) {
+                Appointment hold = new Appointment();
+                hold.setDoctorId(doctorId);
+                hold.setAppointmentTime(appointmentDate.atTime(LocalTime.parse(label)));
+                hold.setStatus(HELD);
+                bookedAppointments.add(new AppointmentResponseDTO(hold));
+            }
             System.out.println("Returning " + bookedAppointments.size() + " booked appointments");
             return ResponseEntity.ok(bookedAppointments);
         } catch (Exception e) {
@@ -162,6 +181,8 @@ public class AppointmentController {
     public ResponseEntity<?> updateAppointment(@PathVariable String id, @RequestBody AppointmentRequestDTO dto) {
         Appointment appointment = appointmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Appointment not found"));
+        // The appointment as stored before the edit, so its slot and rollup counts can be moved
+        Appointment previous = AppointmentBookingService.snapshot(appointment);
 
         // Update time
         if (dto.getAppointmentTime() != null) {
@@ -170,10 +191,6 @@ public class AppointmentController {
             if (newTime.isBefore(LocalDateTime.now()))
                 return ResponseEntity.badRequest().body("Cannot update to a past time");
 
-            // Prevent double booking
-            if (appointmentRepository.existsByDoctorIdAndAppointmentTime(dto.getDoctorId(), newTime))
-                return ResponseEntity.badRequest().body("Time slot already booked");
-
             appointment.setAppointmentTime(newTime);
         }
 
@@ -198,6 +215,12 @@ public class AppointmentController {
             appointment.setUserId(user.getId());
         }
 
+        // Moving onto a slot a chat booking is holding
+        boolean moved = !Objects.equals(appointment.getDoctorId(), previous.getDoctorId())
+                || !Objects.equals(appointment.getAppointmentTime(), previous.getAppointmentTime());
+        if (moved && slotHoldService.isHeld(appointment.getDoctorId(), appointment.getAppointmentTime(), null))
+            return ResponseEntity.badRequest().body(SLOT_HELD_MESSAGE);
+
         // Update patient details
         appointment.setPatientName(dto.getPatientName());
         appointment.setPatientAge(dto.getPatientAge());
@@ -205,17 +228,23 @@ public class AppointmentController {
         appointment.setPatientPhone(dto.getPatientPhone());
         appointment.setPatientEmail(dto.getPatientEmail());
 
-        appointmentRepository.save(appointment);
+        // Prevent double booking: the unique slot index rejects a taken time/doctor
+        try {
+            appointmentBookingService.update(appointment, previous);
+        } catch (SlotAlreadyBookedException e) {
+            return ResponseEntity.badRequest().body("Time slot already booked");
+        }
 
         return ResponseEntity.ok(new AppointmentResponseDTO(appointment));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteAppointment(@PathVariable String id) {
-        if (!appointmentRepository.existsById(id)) {
+        Appointment appointment = appointmentRepository.findById(id).orElse(null);
+        if (appointment == null) {
             return ResponseEntity.notFound().build();
         }
-        appointmentRepository.deleteById(id);
+        appointmentBookingService.delete(appointment);
         return ResponseEntity.ok("Appointment deleted successfully");
     }
 }
@@ -0,0 +1,123 @@
+package com.hospitalfinder.backend.controller;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.hospitalfinder.backend.dto.AvailabilityQueryDTO;
+import com.hospitalfinder.backend.dto.DoctorAvailabilityDTO;
+import com.hospitalfinder.backend.entity.Doctor;
+import com.hospitalfinder.backend.repository.DoctorRepository;
+import com.hospitalfinder.backend.service.SlotAvailabilityService;
+import com.hospitalfinder.backend.service.SlotHoldService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/availability")
+@RequiredArgsConstructor
+public class AvailabilityController {
+
+    private static final int MAX_DAYS = 31;
+    private static final int MAX_DOCTORS = 200;
+
+    private final DoctorRepository doctorRepository;
+    private final SlotAvailabilityService slotAvailabilityService;
+    private final SlotHoldService slotHoldService;
+
+    /**
+     * Free slots for many doctors over a date range: one query for the doctors,
+     * one range query over appointments (skipped for days already cached) and one
+     * over slot holds, with the slots themselves computed from bitmaps.
+     */
+    @PostMapping("/query")
+    public List<DoctorAvailabilityDTO> query(@RequestBody AvailabilityQueryDTO query) {
+        LocalDate from = parseDate(query.getFrom(), LocalDate.now());
+        LocalDate to = parseDate(query.getTo(), from);
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new IllegalArgumentException("Date range is limited to " + MAX_DAYS + " days");
+        }
+
+        List<Doctor> doctors = resolveDoctors(query);
+        if (doctors.size() > MAX_DOCTORS) {
+            throw new IllegalArgumentException("At most " + MAX_DOCTORS + " doctors per query");
+        }
+        if (doctors.isEmpty()) {
+            return List.of();
+        }
+
+        // Past days have nothing free, so there is no need to read them
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate firstOpen = from.isBefore(now.toLocalDate()) ? now.toLocalDate() : from;
+        List<String> doctorIds = doctors.stream().map(Doctor::getId).toList();
+        Map<String, Map<LocalDate, Long>> booked = firstOpen.isAfter(to)
+                ? Map.of()
+                : slotAvailabilityService.bookedSlots(doctorIds, firstOpen, to);
+        // Slots held by in-progress chat bookings are not offered either
+        Map<String, Map<LocalDate, Long>> held = firstOpen.isAfter(to)
+                ? Map.of()
+                : slotHoldService.heldSlots(doctorIds, firstOpen, to, null);
+
+        List<DoctorAvailabilityDTO> result = new ArrayList<>(doctors.size());
+        for (Doctor doctor : doctors) {
+            Map<LocalDate, Long> byDate = booked.getOrDefault(doctor.getId(), Map.of());
+            Map<LocalDate, Long> heldByDate = held.getOrDefault(doctor.getId(), Map.of());
+            List<DoctorAvailabilityDTO.DaySlots> days = new ArrayList<>();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                long taken = byDate.getOrDefault(date, 0L) | heldByDate.getOrDefault(date, 0L);
+                long free = SlotAvailabilityService.freeSlots(date, taken, now);
+                days.add(new DoctorAvailabilityDTO.DaySlots(date.toString(), SlotAvailabilityService.labels(free)));
+            }
+            result.add(new DoctorAvailabilityDTO(doctor.getId(), doctor.getName(), doctor.getSpecialization(),
+                    doctor.getClinicId(), days));
+        }
+        return result;
+    }
+
+    private List<Doctor> resolveDoctors(AvailabilityQueryDTO query) {
+        if (query.getDoctorIds() != null && !query.getDoctorIds().isEmpty()) {
+            Set<String> ids = new LinkedHashSet<>(query.getDoctorIds());
+            if (ids.size() > MAX_DOCTORS) {
+                throw new IllegalArgumentException("At most " + MAX_DOCTORS + " doctors per query");
+            }
+            // Unknown ids are left out; keep the requested order
+            Map<String, Doctor> byId = new HashMap<>();
+            doctorRepository.findAllById(ids).forEach(doctor -> byId.put(doctor.getId(), doctor));
+            return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+        }
+        if (query.getClinicId() != null && !query.getClinicId().isBlank()) {
+            return query.getSpecialization() != null && !query.getSpecialization().isBlank()
+                    ? doctorRepository.findByClinicIdAndSpecializationIgnoreCase(query.getClinicId(),
+                            query.getSpecialization())
+                    : doctorRepository.findByClinicId(query.getClinicId());
+        }
+        throw new IllegalArgumentException("Provide doctorIds or clinicId");
+    }
+
+    private static LocalDate parseDate(String value, LocalDate fallback) {
+        if (value == null || value.isBlank()) {
+            return fallback;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date '" + value + "'. Use YYYY-MM-DD");
+        }
+    }
+}
@@ -7,10 +7,20 @@ import com.hospitalfinder.backend.entity.ChatSession;
 import com.hospitalfinder.backend.entity.Doctor;
 import com.hospitalfinder.backend.entity.Appointment;
 import com.hospitalfinder.backend.entity.Specialization;
-import com.hospitalfinder.backend.repository.ClinicRepository;
 import com.hospitalfinder.backend.repository.ChatSessionRepository;
 import com.hospitalfinder.backend.repository.DoctorRepository;
-import com.hospitalfinder.backend.repository.AppointmentRepository;
+import com.hospitalfinder.backend.exception.SlotAlreadyBookedException;
+import com.hospitalfinder.backend.service.AppointmentBookingService;
+import com.hospitalfinder.backend.service.ClinicCatalog;
+import com.hospitalfinder.backend.service.ClinicCityIndex;
+import com.hospitalfinder.backend.service.ClinicGeoIndex;
+import com.hospitalfinder.backend.service.ClinicRanker;
+import com.hospitalfinder.backend.service.ClinicRankingService;
+import com.hospitalfinder.backend.service.ClinicSort;
+import com.hospitalfinder.backend.service.IdempotencyService;
+import com.hospitalfinder.backend.service.NearestClinicSelector;
+import com.hospitalfinder.backend.service.SlotAvailabilityService;
+import com.hospitalfinder.backend.service.SlotHoldService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
@@ -36,17 +46,35 @@ public class ChatController {
     @Value("${groq.api.key:}")
     private String apiKey;
 
-    @Autowired
-    private ClinicRepository clinicRepository;
-    
     @Autowired
     private ChatSessionRepository chatSessionRepository;
     
     @Autowired
     private DoctorRepository doctorRepository;
-    
+
+    @Autowired
+    private ClinicGeoIndex clinicGeoIndex;
+
+    @Autowired
+    private ClinicCatalog clinicCatalog;
+
+    @Autowired
+    private ClinicCityIndex clinicCityIndex;
+
+    @Autowired
+    private ClinicRankingService clinicRankingService;
+
     @Autowired
-    private AppointmentRepository appointmentRepository;
+    private AppointmentBookingService appointmentBookingService;
+
+    @Autowired
+    private SlotAvailabilityService slotAvailabilityService;
+
+    @Autowired
+    private SlotHoldService slotHoldService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
 
     private final RestTemplate restTemplate = new RestTemplate();
     private final ObjectMapper objectMapper = new ObjectMapper();
@@ -54,6 +82,10 @@ public class ChatController {
     // Maximum hospitals to return in symptom-based search
     private static final int MAX_HOSPITAL_RESULTS = 5;
 
+    // "Did you mean" city suggestions for unknown cities
+    private static final int MAX_CITY_EDIT_DISTANCE = 3;
+    private static final int MAX_CITY_SUGGESTIONS = 4;
+
     // Pattern to detect "hospital near X" or "hospitals in X" queries
     private static final Pattern HOSPITAL_QUERY_PATTERN = Pattern.compile(
             "(?:hospitals?|clinics?)\\s+(?:near|in|at|around)\\s+(.+)",
@@ -286,6 +318,19 @@ public class ChatController {
         return SYMPTOM_KEYWORDS.stream().anyMatch(keyword -> lowerMessage.contains(keyword.toLowerCase()));
     }
 
+    /**
+     * Highest rated clinics, without distances
+     */
+    private List<ClinicGeoIndex.Hit> topRated(List<Clinic> clinics) {
+        ClinicRanker<Clinic> ranker = clinicRankingService.ranker(ClinicSort.RATING, 0, null, 0, MAX_HOSPITAL_RESULTS);
+        for (Clinic clinic : clinics) {
+            ranker.offer(clinic, 0, Double.POSITIVE_INFINITY);
+        }
+        return ranker.page().items().stream()
+                .map(r -> new ClinicGeoIndex.Hit(r.clinic(), Double.POSITIVE_INFINITY))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Handle symptom-based AI response - parse JSON safely and fetch hospitals
      */
@@ -320,34 +365,25 @@ public class ChatController {
             System.out.println("Normalized specializations: " + normalizedSpecs);
 
             // Fetch hospitals by specializations
-            List<Clinic> clinics = clinicRepository.findBySpecializationsIn(normalizedSpecs);
+            List<Clinic> clinics = clinicCatalog.clinics().stream()
+                    .filter(c -> c.getSpecializations() != null && c.getSpecializations().stream()
+                            .anyMatch(s -> s != null && normalizedSpecs.contains(s.getSpecialization())))
+                    .collect(Collectors.toList());
 
-            // Sort by distance if user location is available
-            List<Clinic> sortedClinics;
+            // Keep only the closest few if user location is available
+            List<ClinicGeoIndex.Hit> sortedClinics;
             if (userLat != null && userLng != null) {
-                System.out.println("Sorting hospitals by distance from user location: " + userLat + ", " + userLng);
-                sortedClinics = clinics.stream()
-                        .sorted((c1, c2) -> {
-                            double dist1 = calculateDistance(userLat, userLng,
-                                    c1.getLatitude() != null ? c1.getLatitude() : 0,
-                                    c1.getLongitude() != null ? c1.getLongitude() : 0);
-                            double dist2 = calculateDistance(userLat, userLng,
-                                    c2.getLatitude() != null ? c2.getLatitude() : 0,
-                                    c2.getLongitude() != null ? c2.getLongitude() : 0);
-                            return Double.compare(dist1, dist2);
-                        })
-                        .limit(MAX_HOSPITAL_RESULTS)
-                        .collect(Collectors.toList());
+                System.out.println("Selecting nearest hospitals to user location: " + userLat + ", " + userLng);
+                sortedClinics = NearestClinicSelector.nearest(clinics, userLat, userLng, MAX_HOSPITAL_RESULTS);
             } else {
-                // Fallback: sort by rating if no location
-                sortedClinics = clinics.stream()
-                        .limit(MAX_HOSPITAL_RESULTS)
-                        .collect(Collectors.toList());
+                // Fallback: highest rated if no location
+                sortedClinics = topRated(clinics);
             }
 
             // Build hospital cards with distance info
             List<Map<String, Object>> hospitalList = new ArrayList<>();
-            for (Clinic clinic : sortedClinics) {
+            for (ClinicGeoIndex.Hit hit : sortedClinics) {
+                Clinic clinic = hit.clinic();
                 Map<String, Object> hospital = new HashMap<>();
                 hospital.put("id", clinic.getId());
                 hospital.put("name", clinic.getName());
@@ -359,10 +395,8 @@ public class ChatController {
                 hospital.put("longitude", clinic.getLongitude());
 
                 // Add distance if location is available
-                if (userLat != null && userLng != null && clinic.getLatitude() != null
-                        && clinic.getLongitude() != null) {
-                    double distance = calculateDistance(userLat, userLng, clinic.getLatitude(), clinic.getLongitude());
-                    hospital.put("distance", Math.round(distance * 10.0) / 10.0); // Round to 1 decimal
+                if (!Double.isInfinite(hit.distanceKm())) {
+                    hospital.put("distance", Math.round(hit.distanceKm() * 10.0) / 10.0); // Round to 1 decimal
                 }
 
                 hospitalList.add(hospital);
@@ -438,7 +472,7 @@ public class ChatController {
             String specialty = session.getSpecialization();
             
             // Fetch all hospitals - we'll filter manually
-            List<Clinic> clinics = clinicRepository.findAll();
+            List<Clinic> clinics = clinicCatalog.clinics();
             
             // Filter by specialty if available
             if (specialty != null && !specialty.isEmpty()) {
@@ -449,18 +483,13 @@ public class ChatController {
                     .collect(Collectors.toList());
             }
 
-            // Sort by distance if coordinates provided
-            List<Clinic> sortedClinics = new ArrayList<>(clinics);
+            // Take the closest results if coordinates provided, otherwise the highest rated
+            List<ClinicGeoIndex.Hit> topClinics;
             if (userLat != null && userLng != null) {
-                sortedClinics.sort((a, b) -> {
-                    double distA = calculateDistance(userLat, userLng, a.getLatitude(), a.getLongitude());
-                    double distB = calculateDistance(userLat, userLng, b.getLatitude(), b.getLongitude());
-                    return Double.compare(distA, distB);
-                });
+                topClinics = NearestClinicSelector.nearest(clinics, userLat, userLng, MAX_HOSPITAL_RESULTS);
+            } else {
+                topClinics = topRated(clinics);
             }
-
-            // Take top results
-            List<Clinic> topClinics = sortedClinics.stream().limit(5).collect(Collectors.toList());
             
             // Build response
             Map<String, Object> result = new HashMap<>();
@@ -468,7 +497,8 @@ public class ChatController {
             result.put("step", "hospital_selection");
             result.put("specialty", specialty);
             
-            List<Map<String, Object>> hospitalList = topClinics.stream().map(clinic -> {
+            List<Map<String, Object>> hospitalList = topClinics.stream().map(hit -> {
+                Clinic clinic = hit.clinic();
                 Map<String, Object> hospitalMap = new HashMap<>();
                 hospitalMap.put("id", clinic.getId());
                 hospitalMap.put("clinicId", clinic.getId());
@@ -490,9 +520,8 @@ public class ChatController {
                     : new ArrayList<>();
                 hospitalMap.put("specialties", specialtyNames);
 
-                if (userLat != null && userLng != null) {
-                    double distance = calculateDistance(userLat, userLng, clinic.getLatitude(), clinic.getLongitude());
-                    hospitalMap.put("distance", Math.round(distance * 10.0) / 10.0);
+                if (!Double.isInfinite(hit.distanceKm())) {
+                    hospitalMap.put("distance", Math.round(hit.distanceKm() * 10.0) / 10.0);
                 }
                 return hospitalMap;
             }).collect(Collectors.toList());
@@ -610,17 +639,14 @@ public class ChatController {
      * Handle explicit hospital city search
      */
     private ResponseEntity<?> handleHospitalCitySearch(String placeName) {
-        List<Clinic> clinics = clinicRepository.findByCityIgnoreCase(placeName);
+        List<Clinic> clinics = clinicCatalog.clinics().stream()
+                .filter(c -> placeName.equalsIgnoreCase(c.getCity()))
+                .collect(Collectors.toList());
 
         if (clinics.isEmpty()) {
-            // Fuzzy search for city names
-            List<String> allCities = clinicRepository.findAllDistinctCities();
-            List<String> suggestions = allCities.stream()
-                    .filter(city -> calculateLevenshteinDistance(placeName.toLowerCase(), city.toLowerCase()) <= 3)
-                    .sorted(Comparator.comparingInt(
-                            city -> calculateLevenshteinDistance(placeName.toLowerCase(), city.toLowerCase())))
-                    .limit(4)
-                    .collect(Collectors.toList());
+            // Fuzzy search for city names (BK-tree over the distinct cities)
+            List<String> suggestions = clinicCityIndex.suggest(placeName, MAX_CITY_EDIT_DISTANCE,
+                    MAX_CITY_SUGGESTIONS);
 
             StringBuilder reply = new StringBuilder("Sorry, couldn't find any hospitals in " + placeName + ".");
             if (!suggestions.isEmpty()) {
@@ -686,79 +712,21 @@ public class ChatController {
         return languageNames.getOrDefault(langCode, "English");
     }
 
-    /**
-     * Calculate distance between two points using Haversine formula
-     * 
-     * @param lat1 Latitude of point 1
-     * @param lon1 Longitude of point 1
-     * @param lat2 Latitude of point 2
-     * @param lon2 Longitude of point 2
-     * @return Distance in kilometers
-     */
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int EARTH_RADIUS = 6371; // Earth radius in kilometers
-
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                        * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-
-        return EARTH_RADIUS * c;
-    }
-
-    /**
-     * Calculate Levenshtein distance for fuzzy string matching
-     */
-    private int calculateLevenshteinDistance(String s1, String s2) {
-        int[][] dp = new int[s1.length() + 1][s2.length() + 1];
-
-        for (int i = 0; i <= s1.length(); i++) {
-            for (int j = 0; j <= s2.length(); j++) {
-                if (i == 0) {
-                    dp[i][j] = j;
-                } else if (j == 0) {
-                    dp[i][j] = i;
-                } else {
-                    dp[i][j] = Math.min(Math.min(
-                            dp[i - 1][j] + 1,
-                            dp[i][j - 1] + 1),
-                            dp[i - 1][j - 1] + (s1.charAt(i - 1) == s2.charAt(j - 1) ? 0 : 1));
-                }
-            }
-        }
-        return dp[s1.length()][s2.length()];
-    }
-
     /**
      * Handle "near me" search using user coordinates
      */
     private ResponseEntity<?> handleNearbySearch(Double lat, Double lng) {
-        // Fetch nearest clinics (using existing repo method or explicit distance calc)
-        // Since we don't have a geo-spatial query in simple repo, we fetch all (or by
-        // wide area) and sort in memory
-        // For efficiency, let's fetch all and sort. (Assuming small dataset < 1000
-        // clinics)
-        List<Clinic> allClinics = clinicRepository.findAll();
-
-        List<Clinic> sortedClinics = allClinics.stream()
-                .filter(c -> c.getLatitude() != null && c.getLongitude() != null)
-                .sorted((c1, c2) -> {
-                    double dist1 = calculateDistance(lat, lng, c1.getLatitude(), c1.getLongitude());
-                    double dist2 = calculateDistance(lat, lng, c2.getLatitude(), c2.getLongitude());
-                    return Double.compare(dist1, dist2);
-                })
-                .limit(MAX_HOSPITAL_RESULTS)
-                .collect(Collectors.toList());
+        // Nearest clinics come straight from the in-memory geo index (closest first)
+        List<ClinicGeoIndex.Hit> nearest = clinicGeoIndex.nearest(lat, lng, MAX_HOSPITAL_RESULTS);
 
-        if (sortedClinics.isEmpty()) {
+        if (nearest.isEmpty()) {
             return returnAsNormalText("No hospitals found near your current location.");
         }
 
         // Build response
         List<Map<String, Object>> hospitalList = new ArrayList<>();
-        for (Clinic clinic : sortedClinics) {
+        for (ClinicGeoIndex.Hit hit : nearest) {
+            Clinic clinic = hit.clinic();
             Map<String, Object> hospital = new HashMap<>();
             hospital.put("id", clinic.getId());
             hospital.put("name", clinic.getName());
@@ -768,9 +736,7 @@ public class ChatController {
             hospital.put("address", clinic.getAddress() != null ? clinic.getAddress() : "");
             hospital.put("latitude", clinic.getLatitude());
             hospital.put("longitude", clinic.getLongitude());
-
-            double dist = calculateDistance(lat, lng, clinic.getLatitude(), clinic.getLongitude());
-            hospital.put("distance", Math.round(dist * 10.0) / 10.0);
+            hospital.put("distance", Math.round(hit.distanceKm() * 10.0) / 10.0);
 
             hospitalList.add(hospital);
         }
@@ -784,10 +750,16 @@ public class ChatController {
     }
 
     /**
-     * NEW: Handle step-by-step booking actions from chatbot
+     * NEW: Handle step-by-step booking actions from chatbot. An Idempotency-Key
+     * header makes retried actions replay the first response.
      */
     @PostMapping("/chat/action")
-    public ResponseEntity<?> handleChatAction(@RequestBody ChatActionRequest request) {
+    public ResponseEntity<?> handleChatAction(@RequestBody ChatActionRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("chat-action", idempotencyKey, request, () -> processChatAction(request));
+    }
+
+    private ResponseEntity<?> processChatAction(ChatActionRequest request) {
         try {
             System.out.println("Chat action received: " + request.getAction() + " with value: " + request.getValue());
             
@@ -834,7 +806,7 @@ public class ChatController {
     }
 
     private ResponseEntity<?> handleHospitalSelection(ChatSession session, String clinicId) {
-        Clinic clinic = clinicRepository.findById(clinicId).orElse(null);
+        Clinic clinic = clinicCatalog.findById(clinicId).orElse(null);
         if (clinic == null) {
             return ResponseEntity.badRequest().body(Collections.singletonMap("error", "Hospital not found"));
         }
@@ -884,6 +856,7 @@ public class ChatController {
             return ResponseEntity.badRequest().body(Collections.singletonMap("error", "Doctor not found"));
         }
 
+        releaseHold(session);
         session.setDoctorId(doctorId);
         session.setDoctorName(doctor.getName());
         session.setCurrentStep("date_selection");
@@ -910,25 +883,17 @@ public class ChatController {
                 );
             }
 
+            releaseHold(session);
             session.setSelectedDate(date);
+            session.setSelectedTime(null);
             session.setCurrentStep("time_selection");
             session.setUpdatedAt(LocalDateTime.now());
             chatSessionRepository.save(session);
 
-            // Fetch booked appointments for this doctor on this date
-            LocalDateTime startOfDay = selectedDate.atStartOfDay();
-            LocalDateTime endOfDay = selectedDate.atTime(23, 59, 59);
-            List<Appointment> bookedAppointments = appointmentRepository.findByDoctorAndDate(
-                session.getDoctorId(), startOfDay, endOfDay
-            );
-
-            Set<String> bookedTimes = bookedAppointments.stream()
-                    .filter(apt -> "BOOKED".equalsIgnoreCase(apt.getStatus()))
-                    .map(apt -> apt.getAppointmentTime().toLocalTime().format(DateTimeFormatter.ofPattern("HH:mm")))
-                    .collect(Collectors.toSet());
-
-            // Generate available time slots
-            List<String> availableSlots = generateTimeSlots(selectedDate, bookedTimes);
+            // Free slots from the doctor's cached booking bitmap, minus slots other chats are holding
+            long freeSlots = slotAvailabilityService.freeSlots(session.getDoctorId(), selectedDate, LocalDateTime.now())
+                    & ~slotHoldService.heldSlots(session.getDoctorId(), selectedDate, session.getSessionId());
+            List<String> availableSlots = SlotAvailabilityService.labels(freeSlots);
 
             Map<String, Object> response = new HashMap<>();
             response.put("step", "time_selection");
@@ -946,6 +911,39 @@ public class ChatController {
     }
 
     private ResponseEntity<?> handleTimeSelection(ChatSession session, String time) {
+        if (session.getDoctorId() == null || session.getSelectedDate() == null) {
+            return ResponseEntity.badRequest().body(
+                Collections.singletonMap("error", "Please select a doctor and date first")
+            );
+        }
+        LocalDateTime slot;
+        try {
+            slot = LocalDateTime.of(LocalDate.parse(session.getSelectedDate()), java.time.LocalTime.parse(time));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(
+                Collections.singletonMap("error", "Invalid time format. Please use HH:mm")
+            );
+        }
+
+        int slotIndex = SlotAvailabilityService.slotOf(slot.toLocalTime());
+        long free = slotAvailabilityService.freeSlots(session.getDoctorId(), slot.toLocalDate(), LocalDateTime.now());
+        if (slotIndex < 0 || (free & (1L << slotIndex)) == 0) {
+            return ResponseEntity.badRequest().body(
+                Collections.singletonMap("error", "This time slot is no longer available. Please select another time.")
+            );
+        }
+
+        // Hold the slot for this chat until confirmation so it is not taken in the meantime
+        if (!slotHoldService.hold(session.getSessionId(), session.getDoctorId(), slot)) {
+            return ResponseEntity.badRequest().body(
+                Collections.singletonMap("error", "Someone else is booking this time slot. Please select another time.")
+            );
+        }
+        LocalDateTime previous = selectedSlot(session);
+        if (previous != null && !previous.equals(slot)) {
+            slotHoldService.release(session.getSessionId(), session.getDoctorId(), previous);
+        }
+
         session.setSelectedTime(time);
         session.setCurrentStep("patient_details");
         session.setUpdatedAt(LocalDateTime.now());
@@ -986,7 +984,13 @@ public class ChatController {
                 java.time.LocalTime.parse(session.getSelectedTime())
             );
             appointment.setAppointmentTime(appointmentTime);
-            appointment.setStatus("BOOKED");
+
+            // Renew this chat's hold; it fails only if the hold lapsed and another chat took the slot
+            if (!slotHoldService.hold(session.getSessionId(), session.getDoctorId(), appointmentTime)) {
+                return ResponseEntity.badRequest().body(
+                    Collections.singletonMap("error", "This time slot has just been booked. Please select another time.")
+                );
+            }
             
             // Set patient details
             appointment.setPatientName(request.getPatientName());
@@ -996,15 +1000,16 @@ public class ChatController {
             appointment.setPatientEmail(request.getPatientEmail());
             appointment.setReason(request.getReason());
 
-            // Check for double booking
-            if (appointmentRepository.existsByDoctorIdAndAppointmentTime(
-                    session.getDoctorId(), appointmentTime)) {
+            // The unique slot index rejects a double booking
+            try {
+                appointment = appointmentBookingService.book(appointment);
+            } catch (SlotAlreadyBookedException e) {
+                slotHoldService.release(session.getSessionId(), session.getDoctorId(), appointmentTime);
                 return ResponseEntity.badRequest().body(
                     Collections.singletonMap("error", "This time slot has just been booked. Please select another time.")
                 );
             }
-
-            appointment = appointmentRepository.save(appointment);
+            slotHoldService.release(session.getSessionId(), session.getDoctorId(), appointmentTime);
 
             // Update session
             session.setCurrentStep("booking_confirmed");
@@ -1033,48 +1038,21 @@ public class ChatController {
         }
     }
 
-    private List<String> generateTimeSlots(LocalDate selectedDate, Set<String> bookedTimes) {
-        List<String> slots = new ArrayList<>();
-        LocalDate today = LocalDate.now();
-        boolean isToday = selectedDate.equals(today);
-        int currentHour = isToday ? LocalDateTime.now().getHour() : 0;
-        int currentMinute = isToday ? LocalDateTime.now().getMinute() : 0;
-        
-        boolean isSunday = selectedDate.getDayOfWeek().getValue() == 7;
-        
-        // Morning slots: 9:00 AM - 1:00 PM
-        for (int hour = 9; hour <= 13; hour++) {
-            for (int minute = 0; minute < 60; minute += 30) {
-                if (hour == 13 && minute > 0) break;
-                
-                if (isToday && (hour < currentHour || (hour == currentHour && minute <= currentMinute))) {
-                    continue;
-                }
-                
-                String timeSlot = String.format("%02d:%02d", hour, minute);
-                if (!bookedTimes.contains(timeSlot)) {
-                    slots.add(timeSlot);
-                }
-            }
+    // Give up the session's hold when it picks a different doctor or date
+    private void releaseHold(ChatSession session) {
+        slotHoldService.release(session.getSessionId(), session.getDoctorId(), selectedSlot(session));
+    }
+
+    // The session's chosen date and time, or null if not chosen or unparseable
+    private static LocalDateTime selectedSlot(ChatSession session) {
+        if (session.getSelectedDate() == null || session.getSelectedTime() == null) {
+            return null;
         }
-        
-        // Afternoon slots: 2:00 PM - 8:00 PM (6:00 PM on Sunday)
-        int afternoonEnd = isSunday ? 18 : 20;
-        for (int hour = 14; hour <= afternoonEnd; hour++) {
-            for (int minute = 0; minute < 60; minute += 30) {
-                if (hour == afternoonEnd && minute > 0) break;
-                
-                if (isToday && (hour < currentHour || (hour == currentHour && minute <= currentMinute))) {
-                    continue;
-                }
-                
-                String timeSlot = String.format("%02d:%02d", hour, minute);
-                if (!bookedTimes.contains(timeSlot)) {
-                    slots.add(timeSlot);
-                }
-            }
+        try {
+            return LocalDateTime.of(LocalDate.parse(session.getSelectedDate()),
+                java.time.LocalTime.parse(session.getSelectedTime()));
+        } catch (Exception e) {
+            return null;
         }
-        
-        return slots;
     }
 }
@@ -1,8 +1,12 @@
 package com.hospitalfinder.backend.controller;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,15 +17,30 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.hospitalfinder.backend.dto.ClinicFacetsDTO;
+import com.hospitalfinder.backend.dto.ClinicPageCursor;
 import com.hospitalfinder.backend.dto.ClinicRequestDTO;
 import com.hospitalfinder.backend.dto.ClinicResponseDTO;
 import com.hospitalfinder.backend.dto.ClinicSummaryDTO;
+import com.hospitalfinder.backend.dto.CursorPage;
 import com.hospitalfinder.backend.dto.NearbyClinicDTO;
 import com.hospitalfinder.backend.entity.Clinic;
 import com.hospitalfinder.backend.entity.User;
 import com.hospitalfinder.backend.repository.ClinicRepository;
 import com.hospitalfinder.backend.repository.UserRepository;
+import com.hospitalfinder.backend.service.CatalogResponseCache;
+import com.hospitalfinder.backend.service.ClinicCatalog;
+import com.hospitalfinder.backend.service.ClinicDetailService;
+import com.hospitalfinder.backend.service.ClinicFacetService;
+import com.hospitalfinder.backend.service.ClinicRanker;
+import com.hospitalfinder.backend.service.ClinicRankingService;
+import com.hospitalfinder.backend.service.ClinicSort;
+import com.hospitalfinder.backend.service.ClinicGeoIndex;
+import com.hospitalfinder.backend.service.ClinicSearchIndex;
 import com.hospitalfinder.backend.service.ClinicService;
+import com.hospitalfinder.backend.service.ClinicSpecializationIndex;
+import com.hospitalfinder.backend.service.EtaService;
+import com.hospitalfinder.backend.service.NdjsonStreamer;
 import com.hospitalfinder.backend.service.OwnershipService;
 
 import lombok.RequiredArgsConstructor;
@@ -35,153 +54,213 @@ public class ClinicController {
     private final ClinicRepository clinicRepository;
     private final OwnershipService ownershipService;
     private final UserRepository userRepository;
+    private final ClinicCatalog clinicCatalog;
+    private final ClinicGeoIndex clinicGeoIndex;
+    private final ClinicSpecializationIndex clinicSpecializationIndex;
+    private final ClinicSearchIndex clinicSearchIndex;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final EtaService etaService;
+    private final ClinicFacetService clinicFacetService;
+    private final ClinicRankingService clinicRankingService;
+    private final CatalogResponseCache catalogResponseCache;
+    private final ClinicDetailService clinicDetailService;
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    @Value("${clinics.geo-near.enabled:true}")
+    private boolean geoNearEnabled;
 
     @GetMapping
-    public List<ClinicSummaryDTO> getClinics(
+    public ResponseEntity<?> getClinics(
             @RequestParam(required = false) String city,
             @RequestParam(required = false) List<String> spec,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) Double lat,
-            @RequestParam(required = false) Double lng) {
-        return clinicService.getFilteredClinics(city, spec, search, lat, lng);
+            @RequestParam(required = false) Double lng,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = "Accept", required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ClinicSort order = ClinicSort.parse(sort);
+        // Accept: application/x-ndjson streams the full filtered list, one clinic per line
+        if (NdjsonStreamer.accepts(accept)) {
+            return ndjsonStreamer.stream(() -> clinicService.streamFilteredClinics(city, spec, search, lat, lng, order));
+        }
+
+        // Filters match case-insensitively and specialization order does not matter
+        List<String> specs = new ArrayList<>(ClinicSpecializationIndex.normalize(spec));
+        specs.sort(null);
+        String key = "clinics"
+                + CatalogResponseCache.param("city", city != null ? city.toLowerCase() : null)
+                + CatalogResponseCache.param("spec", specs.isEmpty() ? null : String.join(",", specs))
+                + CatalogResponseCache.param("search", search != null && !search.isEmpty() ? search.toLowerCase() : null)
+                + CatalogResponseCache.param("lat", lat)
+                + CatalogResponseCache.param("lng", lng)
+                + CatalogResponseCache.param("sort", order)
+                + CatalogResponseCache.param("cursor", cursor)
+                + CatalogResponseCache.param("limit", limit);
+        return catalogResponseCache.respond(key, ifNoneMatch, acceptEncoding,
+                () -> page(clinicService.getFilteredClinics(city, spec, search, lat, lng, order, cursor, limit)));
     }
 
     @GetMapping("/nearby")
-    public ResponseEntity<?> getNearbyClinics(
+    public ResponseEntity<List<NearbyClinicDTO>> getNearbyClinics(
             @RequestParam double lat,
             @RequestParam double lng,
             @RequestParam(required = false) String city,
-            @RequestParam(required = false) String specialization) {
-        List<Clinic> clinics;
-
-        // Get clinics within 5km (nearby clinics)
-        clinics = clinicRepository.findNearestClinics(lat, lng);
+            @RequestParam(required = false) String specialization,
+            @RequestParam(required = false) Double radius,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        ClinicSort order = ClinicSort.parse(sort);
+        ClinicPageCursor after = ClinicPageCursor.decode(cursor);
+        List<ClinicGeoIndex.Hit> hits;
+
+        // Nearby clinics come from the in-memory geo index, already sorted by distance.
+        // radius (km) bounds the search area; limit without a radius asks for the nearest K
+        // (plus one to know whether there is a next page).
+        if (radius != null) {
+            hits = clinicGeoIndex.withinRadius(lat, lng, radius);
+        } else if (limit != null && limit >= 0 && after == null && city == null && specialization == null
+                && (order == ClinicSort.RELEVANCE || order == ClinicSort.DISTANCE)) {
+            hits = clinicGeoIndex.nearest(lat, lng, limit + 1);
+        } else {
+            hits = clinicGeoIndex.sortedByDistance(lat, lng);
+        }
 
         // Apply city filter if specified
         if (city != null && !city.isEmpty()) {
-            clinics = clinics.stream()
-                    .filter(clinic -> clinic.getCity() != null &&
-                            clinic.getCity().toLowerCase().contains(city.toLowerCase()))
+            hits = hits.stream()
+                    .filter(hit -> hit.clinic().getCity() != null &&
+                            hit.clinic().getCity().toLowerCase().contains(city.toLowerCase()))
                     .collect(Collectors.toList());
         }
 
         // Apply specialization filter if specified
         if (specialization != null && !specialization.isEmpty()) {
-            clinics = clinics.stream()
-                    .filter(clinic -> clinic.getSpecializations().stream()
+            hits = hits.stream()
+                    .filter(hit -> hit.clinic().getSpecializations().stream()
                             .anyMatch(spec -> spec.getSpecialization().toLowerCase()
                                     .contains(specialization.toLowerCase())))
                     .collect(Collectors.toList());
         }
 
-        List<NearbyClinicDTO> nearbyClinics = clinics.stream()
-                .map(clinic -> {
-                    double distance = calculateDistance(lat, lng, clinic.getLatitude(), clinic.getLongitude());
-                    // Estimate time with variable speed based on distance:
-                    // - Short distances (< 5km): 20 km/h average (more stops, slower roads)
-                    // - Medium distances (5-20km): 30 km/h average
-                    // - Longer distances (> 20km): 40 km/h average (highways, fewer stops)
-                    double speed;
-                    if (distance < 5) {
-                        speed = 20.0;
-                    } else if (distance < 20) {
-                        speed = 30.0;
-                    } else {
-                        speed = 40.0;
-                    }
-                    int estimatedTime = (int) Math.round(distance / speed * 60);
-                    return new NearbyClinicDTO(clinic, distance, estimatedTime);
-                })
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(nearbyClinics);
+        ClinicRanker<Clinic> ranker = clinicRankingService.ranker(order, 0, after, 0, limit);
+        for (ClinicGeoIndex.Hit hit : hits) {
+            ranker.offer(hit.clinic(), 0, hit.distanceKm());
+        }
+        return page(ranker);
     }
 
     @GetMapping("/sorted-by-distance")
-    public ResponseEntity<?> getAllClinicsSortedByDistance(
+    public ResponseEntity<List<NearbyClinicDTO>> getAllClinicsSortedByDistance(
             @RequestParam double lat,
             @RequestParam double lng,
             @RequestParam(required = false) String city,
             @RequestParam(required = false) List<String> spec,
-            @RequestParam(required = false) String search) {
-        List<Clinic> clinics;
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Integer skip,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        ClinicSort order = ClinicSort.parse(sort);
+        ClinicPageCursor after = ClinicPageCursor.decode(cursor);
+
+        // Prefer the $geoNear pipeline so filtering and paging happen in MongoDB;
+        // fall back to the in-memory geo index if it is disabled or unavailable.
+        // The pipeline only implements the default order.
+        if (geoNearEnabled && order == ClinicSort.RELEVANCE) {
+            try {
+                return page(clinicService.getClinicsSortedByDistance(
+                        lat, lng, city, spec, search, skip, limit, cursor));
+            } catch (Exception e) {
+                System.err.println("⚠ $geoNear query failed, using in-memory index: " + e.getMessage());
+            }
+        }
 
-        // Get all clinics ordered by distance
-        clinics = clinicRepository.findAllClinicsOrderedByDistance(lat, lng);
+        // Get all clinics ordered by distance from the geo index
+        List<ClinicGeoIndex.Hit> hits = clinicGeoIndex.sortedByDistance(lat, lng);
 
         // Apply city filter if specified
         if (city != null && !city.isEmpty()) {
-            clinics = clinics.stream()
-                    .filter(clinic -> clinic.getCity() != null &&
-                            clinic.getCity().equalsIgnoreCase(city))
+            hits = hits.stream()
+                    .filter(hit -> hit.clinic().getCity() != null &&
+                            hit.clinic().getCity().equalsIgnoreCase(city))
                     .collect(Collectors.toList());
         }
 
         // Normalize specialization filters (multi-select) for matching
-        List<String> normalizedSpecs = spec == null ? List.of()
-                : spec.stream()
-                        .filter(s -> s != null && !s.isBlank())
-                        .map(String::toLowerCase)
-                        .collect(Collectors.toList());
+        List<String> normalizedSpecs = ClinicSpecializationIndex.normalize(spec);
 
         // Apply search filter if specified
         if (search != null && !search.isEmpty()) {
-            String searchLower = search.toLowerCase();
-            clinics = clinics.stream()
-                    .filter(clinic -> clinic.getName().toLowerCase().contains(searchLower) ||
-                            (clinic.getAddress() != null && clinic.getAddress().toLowerCase().contains(searchLower)))
+            // Name/address matches from the trigram index (city is not searched here)
+            Set<String> searchMatches = clinicSearchIndex.matchingIds(search, false);
+            hits = hits.stream()
+                    .filter(hit -> searchMatches.contains(hit.clinic().getId()))
                     .collect(Collectors.toList());
         }
 
-        // Build list with distance + match count, filter out non-matching when specs
-        // provided
-        record ClinicDistance(Clinic clinic, double distance, int estimatedTime, int matchCount) {
+        // Rank with distance + match count, dropping non-matching clinics when specs
+        // are provided
+        ClinicRanker<Clinic> ranker = clinicRankingService.ranker(order, normalizedSpecs.size(), after,
+                skip != null ? skip : 0, limit);
+        for (ClinicGeoIndex.Hit hit : hits) {
+            int matchCount = normalizedSpecs.isEmpty() ? 0
+                    : clinicSpecializationIndex.matchCount(hit.clinic().getId(), normalizedSpecs);
+            if (normalizedSpecs.isEmpty() || matchCount > 0) {
+                ranker.offer(hit.clinic(), matchCount, hit.distanceKm());
+            }
         }
+        return page(ranker);
+    }
 
-        List<ClinicDistance> enriched = clinics.stream()
-                .map(clinic -> {
-                    double distance = calculateDistance(lat, lng, clinic.getLatitude(), clinic.getLongitude());
-                    // Estimate time with variable speed based on distance:
-                    // - Short distances (< 5km): 20 km/h average (more stops, slower roads)
-                    // - Medium distances (5-20km): 30 km/h average
-                    // - Longer distances (> 20km): 40 km/h average (highways, fewer stops)
-                    double speed;
-                    if (distance < 5) {
-                        speed = 20.0;
-                    } else if (distance < 20) {
-                        speed = 30.0;
-                    } else {
-                        speed = 40.0;
-                    }
-                    int estimatedTime = (int) Math.round(distance / speed * 60);
-                    int matchCount = getMatchCount(clinic, normalizedSpecs);
-                    return new ClinicDistance(clinic, distance, estimatedTime, matchCount);
-                })
-                .filter(cd -> normalizedSpecs.isEmpty() || cd.matchCount > 0)
+    /**
+     * Turn the ranked page into DTOs; only the page is mapped.
+     */
+    private ResponseEntity<List<NearbyClinicDTO>> page(ClinicRanker<Clinic> ranker) {
+        CursorPage<ClinicRanker.Ranked<Clinic>> ranked = ranker.page();
+        List<NearbyClinicDTO> items = ranked.items().stream()
+                .map(r -> new NearbyClinicDTO(r.clinic(), r.distanceKm(),
+                        etaService.estimateMinutes(r.distanceKm(), r.clinic().getCity())))
                 .collect(Collectors.toList());
+        return page(new CursorPage<>(items, ranked.nextCursor()));
+    }
 
-        // Sort: when specs provided -> matchCount desc then distance asc; otherwise
-        // distance asc
-        enriched.sort((a, b) -> {
-            if (!normalizedSpecs.isEmpty()) {
-                int cmp = Integer.compare(b.matchCount, a.matchCount);
-                if (cmp != 0)
-                    return cmp;
-            }
-            return Double.compare(a.distance, b.distance);
-        });
-
-        List<NearbyClinicDTO> sortedClinics = enriched.stream()
-                .map(cd -> new NearbyClinicDTO(cd.clinic, cd.distance, cd.estimatedTime))
-                .collect(Collectors.toList());
+    /**
+     * Page body as a plain JSON array; the next-page cursor goes in a header so
+     * existing clients that expect an array keep working.
+     */
+    private static <T> ResponseEntity<List<T>> page(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
 
-        return ResponseEntity.ok(sortedClinics);
+    /**
+     * Clinic counts per specialization and per city for the given filters, so
+     * filter panels can show counts without downloading the clinic list.
+     */
+    @GetMapping("/facets")
+    public ClinicFacetsDTO getFacets(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) List<String> spec,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(required = false) Double radius) {
+        return clinicFacetService.facets(city, spec, search, lat, lng, radius);
     }
 
     @GetMapping("/id")
     public ResponseEntity<?> getClinicById(@RequestParam(required = true) String id) {
-        return clinicRepository.findById(id)
-                .map(clinic -> ResponseEntity.ok(clinicService.getClinicById(id)))
+        return clinicDetailService.findById(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -219,6 +298,7 @@ public class ClinicController {
         return clinicRepository.findById(id)
                 .map(clinic -> {
                     clinicRepository.deleteById(id);
+                    clinicCatalog.remove(id);
                     return ResponseEntity.ok("Clinic deleted successfully");
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -241,38 +321,4 @@ public class ClinicController {
             return null;
         }
     }
-
-    /**
-     * Calculate distance between two points using Haversine formula
-     * 
-     * @param lat1 Latitude of point 1
-     * @param lon1 Longitude of point 1
-     * @param lat2 Latitude of point 2
-     * @param lon2 Longitude of point 2
-     * @return Distance in kilometers
-     */
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int EARTH_RADIUS = 6371; // Earth radius in kilometers
-
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                        * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-
-        return EARTH_RADIUS * c;
-    }
-
-    private int getMatchCount(Clinic clinic, List<String> normalizedSpecs) {
-        if (normalizedSpecs == null || normalizedSpecs.isEmpty())
-            return 0;
-
-        return (int) clinic.getSpecializations().stream()
-                .map(s -> s.getSpecialization())
-                .filter(spec -> spec != null && !spec.isBlank())
-                .map(String::toLowerCase)
-                .filter(normalizedSpecs::contains)
-                .count();
-    }
 }
\ No newline at end of file
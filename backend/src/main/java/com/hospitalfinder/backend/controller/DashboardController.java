@@ -1,48 +1,74 @@
 package com.hospitalfinder.backend.controller;
 
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.hospitalfinder.backend.dto.AppointmentResponseDTO;
-import com.hospitalfinder.backend.entity.Appointment;
-import com.hospitalfinder.backend.entity.Clinic;
+import com.hospitalfinder.backend.dto.AppointmentStatsDTO;
+import com.hospitalfinder.backend.dto.CursorPage;
 import com.hospitalfinder.backend.entity.Role;
 import com.hospitalfinder.backend.entity.User;
-import com.hospitalfinder.backend.repository.AppointmentRepository;
-import com.hospitalfinder.backend.repository.ClinicRepository;
 import com.hospitalfinder.backend.repository.UserRepository;
+import com.hospitalfinder.backend.service.AppointmentFeedService;
+import com.hospitalfinder.backend.service.ClinicCatalog;
+import com.hospitalfinder.backend.service.ClinicRankingService;
+import com.hospitalfinder.backend.service.DashboardStatsService;
 import com.hospitalfinder.backend.service.JwtService;
+import com.hospitalfinder.backend.service.NdjsonStreamer;
 
 @RestController
 @RequestMapping("/api/dashboard")
 public class DashboardController {
 
-    @Autowired
-    private AppointmentRepository appointmentRepository;
-
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private ClinicRepository clinicRepository;
+    private ClinicRankingService clinicRankingService;
 
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private NdjsonStreamer ndjsonStreamer;
+
+    @Autowired
+    private AppointmentFeedService appointmentFeedService;
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private ClinicCatalog clinicCatalog;
+
+    private static final int APPOINTMENT_STREAM_BATCH_SIZE = 500;
+
     /**
-     * Get all appointments - ADMIN only
+     * Get all appointments - ADMIN only. Paginated like the other feeds (see
+     * {@link AppointmentFeedService}); NDJSON exports stream every appointment
+     * within the given bounds.
      */
     @GetMapping("/appointments/all")
-    public ResponseEntity<?> getAllAppointments() {
+    public ResponseEntity<?> getAllAppointments(
+            @RequestHeader(value = "Accept", required = false) String accept,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String order,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
             User currentUser = getCurrentUser();
 
@@ -54,12 +80,13 @@ public class DashboardController {
                 return ResponseEntity.status(403).body("Access denied. Admin only.");
             }
 
-            List<Appointment> appointments = appointmentRepository.findAll();
-            var responseList = appointments.stream()
-                    .map(AppointmentResponseDTO::new)
-                    .collect(Collectors.toList());
+            // Accept: application/x-ndjson streams straight from a Mongo cursor
+            if (NdjsonStreamer.accepts(accept)) {
+                return ndjsonStreamer.stream(() -> appointmentFeedService.stream(
+                        new Criteria(), from, to, status, APPOINTMENT_STREAM_BATCH_SIZE));
+            }
 
-            return ResponseEntity.ok(responseList);
+            return page(appointmentFeedService.page(new Criteria(), from, to, status, order, cursor, limit));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
@@ -70,7 +97,13 @@ public class DashboardController {
      */
     @GetMapping("/appointments/my-hospital")
     public ResponseEntity<?> getMyHospitalAppointments(
-            @RequestHeader(value = "Authorization", required = false) String authorization) {
+            @RequestHeader(value = "Authorization", required = false) String authorization,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String order,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
             User currentUser = getCurrentUserFromToken(authorization);
 
@@ -94,17 +127,12 @@ public class DashboardController {
 
             System.out.println("✅ Fetching appointments for hospital: " + currentUser.getHospitalId());
 
-            List<Appointment> appointments = appointmentRepository.findByClinicId(currentUser.getHospitalId())
-                    .stream()
-                    .collect(Collectors.toList());
+            CursorPage<AppointmentResponseDTO> appointments = appointmentFeedService.page(
+                    Criteria.where("clinicId").is(currentUser.getHospitalId()), from, to, status, order, cursor, limit);
 
-            System.out.println("✅ Found " + appointments.size() + " appointments");
+            System.out.println("✅ Found " + appointments.items().size() + " appointments");
 
-            var responseList = appointments.stream()
-                    .map(AppointmentResponseDTO::new)
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(responseList);
+            return page(appointments);
         } catch (Exception e) {
             System.err.println("❌ Error in getMyHospitalAppointments: " + e.getMessage());
             e.printStackTrace();
@@ -117,7 +145,13 @@ public class DashboardController {
      */
     @GetMapping("/appointments/my-patients")
     public ResponseEntity<?> getMyPatientAppointments(
-            @RequestHeader(value = "Authorization", required = false) String authorization) {
+            @RequestHeader(value = "Authorization", required = false) String authorization,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String order,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
             User currentUser = getCurrentUserFromToken(authorization);
 
@@ -133,12 +167,8 @@ public class DashboardController {
                 return ResponseEntity.badRequest().body("No doctor profile associated with this account");
             }
 
-            List<Appointment> appointments = appointmentRepository.findByDoctorId(currentUser.getDoctorId());
-            var responseList = appointments.stream()
-                    .map(AppointmentResponseDTO::new)
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(responseList);
+            return page(appointmentFeedService.page(
+                    Criteria.where("doctorId").is(currentUser.getDoctorId()), from, to, status, order, cursor, limit));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
@@ -149,7 +179,8 @@ public class DashboardController {
      */
     @GetMapping("/stats")
     public ResponseEntity<?> getDashboardStats(
-            @RequestHeader(value = "Authorization", required = false) String authorization) {
+            @RequestHeader(value = "Authorization", required = false) String authorization,
+            @RequestParam(defaultValue = "30") int days) {
         try {
             User currentUser = getCurrentUserFromToken(authorization);
 
@@ -158,11 +189,11 @@ public class DashboardController {
             }
 
             if (currentUser.getRole() == Role.ADMIN) {
-                return getAdminStats();
+                return getAdminStats(days);
             } else if (currentUser.getRole() == Role.HOSPITAL) {
-                return getHospitalStats(currentUser);
+                return getHospitalStats(currentUser, days);
             } else if (currentUser.getRole() == Role.DOCTOR) {
-                return getDoctorStats(currentUser);
+                return getDoctorStats(currentUser, days);
             } else {
                 return ResponseEntity.status(403).body("No dashboard available for this role");
             }
@@ -171,47 +202,63 @@ public class DashboardController {
         }
     }
 
-    private ResponseEntity<?> getAdminStats() {
-        long totalHospitals = clinicRepository.count();
-        long totalAppointments = appointmentRepository.count();
-        long totalUsers = userRepository.count();
+    private ResponseEntity<?> getAdminStats(int days) {
+        // Clinics come from the in-memory catalog; the user count rides along in the
+        // rollup aggregate, so this is one round trip
+        long totalHospitals = clinicCatalog.clinics().size();
+        DashboardStatsService.AllStats stats = dashboardStatsService.forAll(days);
 
         return ResponseEntity.ok(new DashboardStats(
                 totalHospitals,
-                totalAppointments,
-                totalUsers,
-                0L));
+                stats.appointments().total(),
+                stats.users(),
+                0L,
+                stats.appointments()));
     }
 
-    private ResponseEntity<?> getHospitalStats(User user) {
+    private ResponseEntity<?> getHospitalStats(User user, int days) {
         if (user.getHospitalId() == null) {
             return ResponseEntity.badRequest().body("No hospital associated with this account");
         }
 
-        long appointmentCount = appointmentRepository.findByClinicId(user.getHospitalId()).size();
+        AppointmentStatsDTO appointments = dashboardStatsService.forClinic(user.getHospitalId(), days);
 
-        Clinic clinic = clinicRepository.findById(user.getHospitalId()).orElse(null);
-        long doctorCount = clinic != null ? clinic.getDoctors().size() : 0;
+        // Cached per-clinic doctor counts, refreshed when a clinic's doctors change
+        long doctorCount = clinicRankingService.doctorCount(user.getHospitalId());
 
         return ResponseEntity.ok(new DashboardStats(
                 1L,
-                appointmentCount,
+                appointments.total(),
                 0L,
-                doctorCount));
+                doctorCount,
+                appointments));
     }
 
-    private ResponseEntity<?> getDoctorStats(User user) {
+    private ResponseEntity<?> getDoctorStats(User user, int days) {
         if (user.getDoctorId() == null) {
             return ResponseEntity.badRequest().body("No doctor profile associated with this account");
         }
 
-        long appointmentCount = appointmentRepository.findByDoctorId(user.getDoctorId()).size();
+        AppointmentStatsDTO appointments = dashboardStatsService.forDoctor(user.getDoctorId(), days);
 
         return ResponseEntity.ok(new DashboardStats(
                 0L,
-                appointmentCount,
+                appointments.total(),
                 0L,
-                0L));
+                0L,
+                appointments));
+    }
+
+    /**
+     * Page body as a plain JSON array with the next-page cursor in a header, as
+     * on the clinic lists.
+     */
+    private static <T> ResponseEntity<List<T>> page(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(ClinicController.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
     }
 
     private User getCurrentUserFromToken(String authorization) {
@@ -253,12 +300,15 @@ public class DashboardController {
         private long appointmentCount;
         private long userCount;
         private long doctorCount;
+        private AppointmentStatsDTO appointments;
 
-        public DashboardStats(long hospitalCount, long appointmentCount, long userCount, long doctorCount) {
+        public DashboardStats(long hospitalCount, long appointmentCount, long userCount, long doctorCount,
+                AppointmentStatsDTO appointments) {
             this.hospitalCount = hospitalCount;
             this.appointmentCount = appointmentCount;
             this.userCount = userCount;
             this.doctorCount = doctorCount;
+            this.appointments = appointments;
         }
 
         public long getHospitalCount() {
@@ -276,5 +326,9 @@ public class DashboardController {
         public long getDoctorCount() {
             return doctorCount;
         }
+
+        public AppointmentStatsDTO getAppointments() {
+            return appointments;
+        }
     }
 }
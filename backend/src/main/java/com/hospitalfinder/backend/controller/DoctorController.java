@@ -18,6 +18,8 @@ import com.hospitalfinder.backend.entity.Clinic;
 import com.hospitalfinder.backend.entity.Doctor;
 import com.hospitalfinder.backend.repository.ClinicRepository;
 import com.hospitalfinder.backend.repository.DoctorRepository;
+import com.hospitalfinder.backend.service.ClinicCatalog;
+import com.hospitalfinder.backend.service.ClinicDetailService;
 
 @RestController
 @RequestMapping("/api")
@@ -26,10 +28,15 @@ public class DoctorController {
 
     private final DoctorRepository doctorRepository;
     private final ClinicRepository clinicRepository;
+    private final ClinicCatalog clinicCatalog;
+    private final ClinicDetailService clinicDetailService;
 
-    public DoctorController(DoctorRepository doctorRepository, ClinicRepository clinicRepository) {
+    public DoctorController(DoctorRepository doctorRepository, ClinicRepository clinicRepository,
+            ClinicCatalog clinicCatalog, ClinicDetailService clinicDetailService) {
         this.doctorRepository = doctorRepository;
         this.clinicRepository = clinicRepository;
+        this.clinicCatalog = clinicCatalog;
+        this.clinicDetailService = clinicDetailService;
     }
 
     @PostMapping("/clinics/{clinicId}/doctors")
@@ -40,6 +47,8 @@ public class DoctorController {
         }
         doctor.setClinicId(clinicId);
         Doctor savedDoctor = doctorRepository.save(doctor);
+        clinicCatalog.reload(clinicId);
+        clinicDetailService.evict(clinicId);
         return ResponseEntity.ok(savedDoctor);
     }
 
@@ -59,10 +68,13 @@ public class DoctorController {
 
     @DeleteMapping("/doctors/{doctorId}")
     public ResponseEntity<?> deleteDoctor(@PathVariable String doctorId) {
-        if (!doctorRepository.existsById(doctorId)) {
+        Optional<Doctor> doctorOpt = doctorRepository.findById(doctorId);
+        if (doctorOpt.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         doctorRepository.deleteById(doctorId);
+        clinicCatalog.reload(doctorOpt.get().getClinicId());
+        clinicDetailService.evict(doctorOpt.get().getClinicId());
         return ResponseEntity.ok("Doctor deleted successfully");
     }
 
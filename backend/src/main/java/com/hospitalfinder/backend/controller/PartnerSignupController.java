@@ -15,6 +15,7 @@ import com.hospitalfinder.backend.entity.Role;
 import com.hospitalfinder.backend.entity.User;
 import com.hospitalfinder.backend.repository.ClinicRepository;
 import com.hospitalfinder.backend.repository.UserRepository;
+import com.hospitalfinder.backend.service.ClinicCatalog;
 import com.hospitalfinder.backend.service.JwtService;
 
 import jakarta.servlet.http.Cookie;
@@ -30,6 +31,7 @@ public class PartnerSignupController {
     private final ClinicRepository clinicRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final ClinicCatalog clinicCatalog;
 
     @PostMapping("/signup")
     @Transactional
@@ -73,12 +75,14 @@ public class PartnerSignupController {
         clinic.setDescription(request.getDescription());
         clinic.setLatitude(request.getLatitude());
         clinic.setLongitude(request.getLongitude());
+        clinic.syncLocation();
         clinic.setImageUrl(request.getImageUrl());
         clinic.setOwnerId(user.getId());
         clinic.setRating(0.0); // Default rating
 
         // Save clinic
         clinic = clinicRepository.save(clinic);
+        clinicCatalog.upsert(clinic);
 
         // Link hospital to user
         user.setHospitalId(clinic.getId());
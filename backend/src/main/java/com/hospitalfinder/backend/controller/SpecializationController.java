@@ -1,23 +1,29 @@
 package com.hospitalfinder.backend.controller;
 
-import com.hospitalfinder.backend.entity.Specialization;
 import com.hospitalfinder.backend.repository.SpecializationRepository;
+import com.hospitalfinder.backend.service.CatalogResponseCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/specializations")
 @RequiredArgsConstructor
 public class SpecializationController {
     private final SpecializationRepository specializationRepository;
+    private final CatalogResponseCache catalogResponseCache;
 
+    // New specializations are only created along with a clinic, so the clinic
+    // catalog version covers this list too
     @GetMapping
-    public List<Specialization> getAll() {
-        return specializationRepository.findAll();
+    public ResponseEntity<?> getAll(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return catalogResponseCache.respond("specializations", ifNoneMatch, acceptEncoding,
+                () -> ResponseEntity.ok(specializationRepository.findAll()));
     }
 }
-
@@ -0,0 +1,37 @@
+package com.hospitalfinder.backend.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for appointment feeds, ordered by appointment time and
+ * then id. Holds that pair for the last item of a page; the next page starts
+ * strictly after it in the feed's direction.
+ */
+public record AppointmentPageCursor(LocalDateTime appointmentTime, String id) {
+
+    private static final String VERSION = "a1";
+
+    public static AppointmentPageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3 || !VERSION.equals(parts[0]) || parts[2].isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new AppointmentPageCursor(LocalDateTime.parse(parts[1]), parts[2]);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = VERSION + "|" + appointmentTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
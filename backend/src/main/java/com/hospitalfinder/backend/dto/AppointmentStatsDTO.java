@@ -0,0 +1,21 @@
+package com.hospitalfinder.backend.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appointment counts for a dashboard: totals, per status, per day over the
+ * requested window (oldest first, zero-filled), per doctor specialization and
+ * distinct patients.
+ */
+public record AppointmentStatsDTO(
+        long total,
+        Map<String, Long> byStatus,
+        List<DayCount> byDay,
+        Map<String, Long> bySpecialization,
+        long distinctPatients) {
+
+    public record DayCount(LocalDate date, long count) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.hospitalfinder.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class AvailabilityQueryDTO {
+
+    // Either explicit doctors...
+    private List<String> doctorIds;
+
+    // ...or every doctor of a clinic, optionally of one specialization
+    private String clinicId;
+    private String specialization;
+
+    private String from; // YYYY-MM-DD, defaults to today
+    private String to;   // YYYY-MM-DD inclusive, defaults to from
+}
@@ -0,0 +1,21 @@
+package com.hospitalfinder.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ClinicFacetsDTO {
+    private long total; // clinics matching every filter
+    private List<FacetCount> specializations;
+    private List<FacetCount> cities;
+
+    @Getter
+    @AllArgsConstructor
+    public static class FacetCount {
+        private String value;
+        private long count;
+    }
+}
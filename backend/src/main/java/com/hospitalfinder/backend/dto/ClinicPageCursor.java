@@ -0,0 +1,53 @@
+package com.hospitalfinder.backend.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for clinic list endpoints.
+ *
+ * Clinic lists are ordered by a tier (desc), a key (asc) and clinic id (asc);
+ * the cursor holds that triple for the last item of a page and the next page
+ * starts strictly after it. In the default order the tier is the match count and
+ * the key the distance; other sorts put their own key in {@code distance} (see
+ * {@code ClinicRanker}), so a cursor is only valid for the sort that produced it.
+ */
+public record ClinicPageCursor(int matchCount, double distance, String id) {
+
+    private static final String VERSION = "c1";
+
+    public static ClinicPageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || !VERSION.equals(parts[0]) || parts[3].isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ClinicPageCursor(Integer.parseInt(parts[1]), Double.parseDouble(parts[2]), parts[3]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = VERSION + "|" + matchCount + "|" + distance + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * True if an item with the given sort key comes after this cursor.
+     */
+    public boolean isBefore(int matchCount, double distance, String id) {
+        if (matchCount != this.matchCount) {
+            return matchCount < this.matchCount;
+        }
+        int cmp = Double.compare(distance, this.distance);
+        if (cmp != 0) {
+            return cmp > 0;
+        }
+        return id != null && id.compareTo(this.id) > 0;
+    }
+}
@@ -3,7 +3,7 @@ package com.hospitalfinder.backend.dto;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import com.hospitalfinder.backend.entity.Clinic;
+import com.hospitalfinder.backend.entity.ClinicSummaryView;
 import com.hospitalfinder.backend.entity.Specialization;
 
 import lombok.Getter;
@@ -27,11 +27,11 @@ public class ClinicSummaryDTO {
     private Integer estimatedTime; // in minutes
     private Integer estimatedWaitMinutes; // in minutes (aliased)
 
-    public ClinicSummaryDTO(Clinic clinic) {
+    public ClinicSummaryDTO(ClinicSummaryView clinic) {
         this(clinic, null, null);
     }
 
-    public ClinicSummaryDTO(Clinic clinic, Double distance, Integer estimatedTime) {
+    public ClinicSummaryDTO(ClinicSummaryView clinic, Double distance, Integer estimatedTime) {
         this.clinicId = clinic.getId();
         this.name = clinic.getName();
         this.address = clinic.getAddress();
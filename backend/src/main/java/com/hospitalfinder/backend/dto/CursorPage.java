@@ -0,0 +1,9 @@
+package com.hospitalfinder.backend.dto;
+
+import java.util.List;
+
+/**
+ * One page of results plus the cursor for the next page ({@code null} on the last page).
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,23 @@
+package com.hospitalfinder.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class DoctorAvailabilityDTO {
+    private String doctorId;
+    private String doctorName;
+    private String specialization;
+    private String clinicId;
+    private List<DaySlots> days;
+
+    @Getter
+    @AllArgsConstructor
+    public static class DaySlots {
+        private String date;
+        private List<String> slots; // free start times, "HH:mm"
+    }
+}
@@ -0,0 +1,40 @@
+package com.hospitalfinder.backend.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Appointment counters for one doctor at one clinic on one day, kept current by
+ * {@code AppointmentRollupService}. {@code date} is the ISO day of the
+ * appointment time; {@code revision} is bumped by every change so the
+ * reconciliation job can overwrite a row only if nothing touched it meanwhile.
+ * Patient rows have a {@code userId} instead of a {@code date} and count that
+ * patient's appointments with the doctor, for distinct-patient totals.
+ */
+@Document(collection = "appointment_rollups")
+@Getter @Setter
+@NoArgsConstructor
+public class AppointmentRollup {
+
+    @Id
+    private String id; // clinicId|doctorId|date, or patient|clinicId|doctorId|userId
+
+    private String clinicId;
+
+    private String doctorId;
+
+    private String date; // yyyy-MM-dd; null on patient rows
+
+    private String userId; // patient rows only
+
+    private long booked;
+
+    private long cancelled;
+
+    private long total; // every status, including booked and cancelled
+
+    private long revision;
+}
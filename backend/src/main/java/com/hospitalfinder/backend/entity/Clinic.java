@@ -5,12 +5,13 @@ import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.data.mongodb.core.mapping.Document;
 import lombok.Getter;
 import lombok.Setter;
 
 @Document(collection = "clinics")
-public class Clinic {
+public class Clinic implements ClinicSummaryView {
     @Id
     @Getter
     @Setter
@@ -42,6 +43,10 @@ public class Clinic {
     @Getter
     @Setter
     private Double longitude;
+    // GeoJSON copy of latitude/longitude for the 2dsphere index ([lng, lat] order)
+    @Getter
+    @Setter
+    private GeoJsonPoint location;
     @Getter
     @Setter
     private Collection<Specialization> specializations = new ArrayList<>();
@@ -72,4 +77,13 @@ public class Clinic {
     @Getter
     @Setter
     private String imageUrl;
-}
\ No newline at end of file
+
+    /**
+     * Rebuild {@link #location} from latitude/longitude. Call after changing coordinates.
+     */
+    public void syncLocation() {
+        this.location = (latitude != null && longitude != null)
+                ? new GeoJsonPoint(longitude, latitude)
+                : null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.hospitalfinder.backend.entity;
+
+import java.util.Collection;
+
+/**
+ * The clinic fields shown in list views. Used as a closed projection by
+ * {@code ClinicRepository} so list queries skip doctors, description, timings and
+ * other detail fields; {@link Clinic} implements it so full documents and
+ * projections can be mapped the same way.
+ */
+public interface ClinicSummaryView {
+
+    String getId();
+
+    String getName();
+
+    String getAddress();
+
+    String getCity();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    Collection<Specialization> getSpecializations();
+
+    Double getRating();
+
+    Integer getReviews();
+
+    String getImageUrl();
+}
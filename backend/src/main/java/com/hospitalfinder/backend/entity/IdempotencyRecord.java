@@ -0,0 +1,36 @@
+package com.hospitalfinder.backend.entity;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The outcome of a request sent with an {@code Idempotency-Key}, replayed to
+ * retries of the same request until {@code expiresAt} (TTL index).
+ */
+@Document(collection = "idempotency_keys")
+@Getter @Setter
+@NoArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    private String id; // scope:key
+
+    private String fingerprint; // SHA-256 of the request body
+
+    private String status; // IN_PROGRESS, COMPLETED
+
+    private Instant lockedUntil; // while IN_PROGRESS: when another instance may take over
+
+    private Integer responseStatus;
+
+    private String responseContentType;
+
+    private String responseBody;
+
+    private Instant expiresAt;
+}
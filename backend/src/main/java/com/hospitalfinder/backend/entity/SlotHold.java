@@ -0,0 +1,32 @@
+package com.hospitalfinder.backend.entity;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A short-lived reservation of a doctor's slot by a chat session, taken when a
+ * time is picked and released on booking. MongoDB removes it after
+ * {@code expiresAt} through a TTL index.
+ */
+@Document(collection = "slot_holds")
+@Getter @Setter
+@NoArgsConstructor
+public class SlotHold {
+
+    @Id
+    private String id; // doctorId|appointmentTime, so one hold per slot
+
+    private String doctorId;
+
+    private LocalDateTime appointmentTime;
+
+    private String sessionId;
+
+    private Instant expiresAt;
+}
@@ -0,0 +1,11 @@
+package com.hospitalfinder.backend.exception;
+
+/**
+ * The doctor already has a booked appointment at the requested time.
+ */
+public class SlotAlreadyBookedException extends RuntimeException {
+
+    public SlotAlreadyBookedException() {
+        super("This time slot is already booked");
+    }
+}
@@ -17,10 +17,13 @@ public interface AppointmentRepository extends MongoRepository<Appointment, Stri
     List<Appointment> findByClinicIdAndStatusIgnoreCase(String clinicId, String status);
     List<Appointment> findByDoctorId(String doctorId);
     boolean existsByUserIdAndClinicIdAndAppointmentTime(String userId, String clinicId, LocalDateTime appointmentTime);
-    // check if a slot is already taken for a doctor
-    boolean existsByDoctorIdAndAppointmentTime(String doctorId, LocalDateTime appointmentTime);
 
     // get all booked slots of a doctor for a date
     @Query("{ 'doctorId': ?0, 'appointmentTime': { $gte: ?1, $lt: ?2 } }")
     List<Appointment> findByDoctorAndDate(String doctorId, LocalDateTime startOfDay, LocalDateTime endOfDay);
+
+    // booked slots of several doctors in [from, to); status lets it use the partial unique slot index
+    @Query(value = "{ 'doctorId': { $in: ?0 }, 'appointmentTime': { $gte: ?1, $lt: ?2 }, 'status': 'BOOKED' }",
+            fields = "{ 'doctorId': 1, 'appointmentTime': 1, 'status': 1 }")
+    List<Appointment> findBookedByDoctorIdsBetween(Collection<String> doctorIds, LocalDateTime from, LocalDateTime to);
 }
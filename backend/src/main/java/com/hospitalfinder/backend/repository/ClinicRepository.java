@@ -1,6 +1,7 @@
 package com.hospitalfinder.backend.repository;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
@@ -10,6 +11,16 @@ import com.hospitalfinder.backend.entity.Clinic;
 
 public interface ClinicRepository extends MongoRepository<Clinic, String> {
 
+    // Everything but the embedded doctors, which detail reads load from the doctors collection
+    String CATALOG_FIELDS = "{ 'doctors': 0 }";
+
+    // Catalog loads
+    @Query(value = "{ }", fields = CATALOG_FIELDS)
+    List<Clinic> findAllForCatalog();
+
+    @Query(value = "{ '_id': ?0 }", fields = CATALOG_FIELDS)
+    Optional<Clinic> findByIdForCatalog(String id);
+
     List<Clinic> findByCityIgnoreCase(String city);
 
     @Query("{ 'city': ?0, 'specializations.specialization': ?1 }")
@@ -34,12 +45,15 @@ public interface ClinicRepository extends MongoRepository<Clinic, String> {
     @Query("{ }")
     List<Clinic> findAllWithSpecializations();
 
-    @Query(value = "{ }", fields = "{ 'city': 1 }")
-    List<String> findAllDistinctCities();
-
     @Query("{ 'specializations.specialization': { $in: ?0 } }")
     List<Clinic> findBySpecializationsIn(List<String> specializations);
 
     // Find clinic by owner ID
     Clinic findByOwnerId(String ownerId);
+
+    // Ownership checks read the database, not the catalog snapshot, so a revoked owner loses access at once
+    boolean existsByIdAndOwnerId(String id, String ownerId);
+
+    @Query(value = "{ 'ownerId': ?0 }", fields = CATALOG_FIELDS)
+    List<Clinic> findByOwnerIdForCatalog(String ownerId);
 }
\ No newline at end of file
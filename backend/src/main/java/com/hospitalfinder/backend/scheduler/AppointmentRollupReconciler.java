@@ -0,0 +1,80 @@
+package com.hospitalfinder.backend.scheduler;
+
+import java.time.LocalDate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.hospitalfinder.backend.service.AppointmentRollupService;
+
+/**
+ * Keeps the appointment rollups honest: builds them from scratch on a fresh
+ * database, then periodically recomputes a window of days around today (and
+ * any day whose increments failed) and repairs rows that drifted. Patient rows
+ * span all time, so they are rebuilt in full, daily and after failed increments.
+ */
+@Component
+@Order(5) // After seeding, so a fresh database is rolled up once
+public class AppointmentRollupReconciler implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentRollupReconciler.class);
+
+    private final AppointmentRollupService rollupService;
+    private final int lookbackDays;
+    private final int aheadDays;
+
+    public AppointmentRollupReconciler(AppointmentRollupService rollupService,
+            @Value("${appointments.rollups.lookback-days:35}") int lookbackDays,
+            @Value("${appointments.rollups.ahead-days:90}") int aheadDays) {
+        this.rollupService = rollupService;
+        this.lookbackDays = lookbackDays;
+        this.aheadDays = aheadDays;
+    }
+
+    @Override
+    public void run(String... args) {
+        try {
+            if (!rollupService.hasRollups()) {
+                int rows = rollupService.reconcile(null, null);
+                logger.info("Built appointment rollups: {} rows", rows);
+            }
+            if (!rollupService.hasPatientRollups()) {
+                int rows = rollupService.reconcilePatients();
+                logger.info("Built patient rollups: {} rows", rows);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to build appointment rollups: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${appointments.rollups.reconcile-cron:0 15 * * * *}")
+    public void reconcile() {
+        try {
+            LocalDate today = LocalDate.now();
+            int repaired = rollupService.reconcileDirtyDays()
+                    + rollupService.reconcile(today.minusDays(lookbackDays), today.plusDays(aheadDays));
+            if (repaired > 0) {
+                logger.warn("Repaired {} drifted appointment rollup rows", repaired);
+            }
+        } catch (Exception e) {
+            logger.error("Appointment rollup reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${appointments.rollups.patient-reconcile-cron:0 45 3 * * *}")
+    public void reconcilePatients() {
+        try {
+            int repaired = rollupService.reconcilePatients();
+            if (repaired > 0) {
+                logger.warn("Repaired {} drifted patient rollup rows", repaired);
+            }
+        } catch (Exception e) {
+            logger.error("Patient rollup reconciliation failed: {}", e.getMessage());
+        }
+    }
+}
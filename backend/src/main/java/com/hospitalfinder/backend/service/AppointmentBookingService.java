@@ -0,0 +1,122 @@
+package com.hospitalfinder.backend.service;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import com.hospitalfinder.backend.entity.Appointment;
+import com.hospitalfinder.backend.exception.SlotAlreadyBookedException;
+import com.hospitalfinder.backend.repository.AppointmentRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The one write path for booked appointments.
+ *
+ * A partial unique index on (doctorId, appointmentTime) over {@code BOOKED}
+ * appointments ({@link #slotIndex()}) makes MongoDB the arbiter of a slot:
+ * writes go straight to the database and a duplicate key error means someone
+ * else holds the slot. There is no check-then-insert window, and a booking costs
+ * one round trip. Appointments in any other status do not hold their slot.
+ * Every change is also applied to the {@link SlotAvailabilityService} bitmaps
+ * and the {@link AppointmentRollupService} daily counters.
+ */
+@Service
+@RequiredArgsConstructor
+public class AppointmentBookingService {
+
+    public static final String BOOKED = "BOOKED";
+    public static final String SLOT_INDEX_NAME = "doctor_slot_booked";
+
+    private final AppointmentRepository appointmentRepository;
+    private final SlotAvailabilityService slotAvailabilityService;
+    private final AppointmentRollupService appointmentRollupService;
+
+    /**
+     * Unique (doctorId, appointmentTime) among booked appointments.
+     */
+    public static Index slotIndex() {
+        return new Index()
+                .on("doctorId", Sort.Direction.ASC)
+                .on("appointmentTime", Sort.Direction.ASC)
+                .unique()
+                .partial(PartialIndexFilter.of(Criteria.where("status").is(BOOKED)))
+                .named(SLOT_INDEX_NAME);
+    }
+
+    /**
+     * Copy of an appointment as stored, to pass as {@code previous} to
+     * {@link #update} before the edit is applied to the original.
+     */
+    public static Appointment snapshot(Appointment appointment) {
+        Appointment copy = new Appointment();
+        copy.setId(appointment.getId());
+        copy.setUserId(appointment.getUserId());
+        copy.setClinicId(appointment.getClinicId());
+        copy.setDoctorId(appointment.getDoctorId());
+        copy.setAppointmentTime(appointment.getAppointmentTime());
+        copy.setStatus(appointment.getStatus());
+        copy.setPatientName(appointment.getPatientName());
+        copy.setPatientAge(appointment.getPatientAge());
+        copy.setPatientGender(appointment.getPatientGender());
+        copy.setPatientPhone(appointment.getPatientPhone());
+        copy.setPatientEmail(appointment.getPatientEmail());
+        copy.setReason(appointment.getReason());
+        return copy;
+    }
+
+    /**
+     * Insert a new appointment as {@code BOOKED}.
+     *
+     * @throws SlotAlreadyBookedException if the doctor is already booked at that time
+     */
+    public Appointment book(Appointment appointment) {
+        appointment.setStatus(BOOKED);
+        Appointment saved;
+        try {
+            saved = appointmentRepository.insert(appointment);
+        } catch (DuplicateKeyException e) {
+            throw new SlotAlreadyBookedException();
+        }
+        slotAvailabilityService.booked(saved.getDoctorId(), saved.getAppointmentTime());
+        appointmentRollupService.recorded(saved);
+        return saved;
+    }
+
+    /**
+     * Save changes to an existing appointment, e.g. a new time or doctor.
+     * {@code previous} is the appointment as it was stored before the edit.
+     *
+     * @throws SlotAlreadyBookedException if that moves it onto a booked slot
+     */
+    public Appointment update(Appointment appointment, Appointment previous) {
+        Appointment saved;
+        try {
+            saved = appointmentRepository.save(appointment);
+        } catch (DuplicateKeyException e) {
+            throw new SlotAlreadyBookedException();
+        }
+        if (BOOKED.equalsIgnoreCase(previous.getStatus())) {
+            slotAvailabilityService.released(previous.getDoctorId(), previous.getAppointmentTime());
+        }
+        if (BOOKED.equalsIgnoreCase(saved.getStatus())) {
+            slotAvailabilityService.booked(saved.getDoctorId(), saved.getAppointmentTime());
+        }
+        appointmentRollupService.changed(previous, saved);
+        return saved;
+    }
+
+    /**
+     * Delete an appointment and free its slot.
+     */
+    public void delete(Appointment appointment) {
+        appointmentRepository.deleteById(appointment.getId());
+        if (BOOKED.equalsIgnoreCase(appointment.getStatus())) {
+            slotAvailabilityService.released(appointment.getDoctorId(), appointment.getAppointmentTime());
+        }
+        appointmentRollupService.removed(appointment);
+    }
+}
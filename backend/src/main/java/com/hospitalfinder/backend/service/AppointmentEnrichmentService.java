@@ -0,0 +1,116 @@
+package com.hospitalfinder.backend.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.stereotype.Service;
+
+import com.hospitalfinder.backend.dto.AppointmentResponseDTO;
+import com.hospitalfinder.backend.entity.Appointment;
+import com.hospitalfinder.backend.entity.Clinic;
+import com.hospitalfinder.backend.entity.Doctor;
+import com.hospitalfinder.backend.entity.User;
+import com.hospitalfinder.backend.repository.DoctorRepository;
+import com.hospitalfinder.backend.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Turns appointments into {@link AppointmentResponseDTO}s with clinic, doctor and
+ * user names filled in, without a lookup per appointment.
+ *
+ * The distinct doctor and user ids of a batch are fetched with one
+ * {@code findAllById} each and joined in memory; clinics come from the
+ * {@link ClinicCatalog}, which needs no query at all.
+ */
+@Service
+@RequiredArgsConstructor
+public class AppointmentEnrichmentService {
+
+    private final ClinicCatalog clinicCatalog;
+    private final DoctorRepository doctorRepository;
+    private final UserRepository userRepository;
+
+    public List<AppointmentResponseDTO> enrich(Collection<Appointment> appointments) {
+        if (appointments.isEmpty()) {
+            return List.of();
+        }
+        Set<String> doctorIds = new LinkedHashSet<>();
+        Set<String> userIds = new LinkedHashSet<>();
+        for (Appointment appointment : appointments) {
+            if (appointment.getDoctorId() != null) {
+                doctorIds.add(appointment.getDoctorId());
+            }
+            if (appointment.getUserId() != null) {
+                userIds.add(appointment.getUserId());
+            }
+        }
+        Map<String, Doctor> doctors = byId(doctorIds, doctorRepository::findAllById, Doctor::getId);
+        Map<String, User> users = byId(userIds, userRepository::findAllById, User::getId);
+        ClinicCatalog.Snapshot clinics = clinicCatalog.snapshot();
+
+        List<AppointmentResponseDTO> result = new ArrayList<>(appointments.size());
+        for (Appointment appointment : appointments) {
+            Clinic clinic = clinics.findById(appointment.getClinicId()).orElse(null);
+            Doctor doctor = appointment.getDoctorId() != null ? doctors.get(appointment.getDoctorId()) : null;
+            User user = appointment.getUserId() != null ? users.get(appointment.getUserId()) : null;
+            result.add(new AppointmentResponseDTO(appointment, clinic, doctor, user));
+        }
+        return result;
+    }
+
+    /**
+     * Lazily enrich a stream (e.g. a Mongo cursor) {@code batchSize} appointments
+     * at a time, so lookups stay batched while memory stays bounded. Closing the
+     * result closes the source.
+     */
+    public Stream<AppointmentResponseDTO> enrich(Stream<Appointment> appointments, int batchSize) {
+        Iterator<Appointment> source = appointments.iterator();
+        Iterator<AppointmentResponseDTO> enriched = new Iterator<>() {
+            private Iterator<AppointmentResponseDTO> batch = List.<AppointmentResponseDTO>of().iterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!batch.hasNext() && source.hasNext()) {
+                    List<Appointment> next = new ArrayList<>(batchSize);
+                    while (next.size() < batchSize && source.hasNext()) {
+                        next.add(source.next());
+                    }
+                    batch = enrich(next).iterator();
+                }
+                return batch.hasNext();
+            }
+
+            @Override
+            public AppointmentResponseDTO next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return batch.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(enriched, Spliterator.ORDERED), false)
+                .onClose(appointments::close);
+    }
+
+    private static <T> Map<String, T> byId(Set<String> ids, Function<Set<String>, Iterable<T>> findAllById,
+            Function<T, String> idOf) {
+        Map<String, T> result = new HashMap<>();
+        if (!ids.isEmpty()) {
+            findAllById.apply(ids).forEach(entity -> result.put(idOf.apply(entity), entity));
+        }
+        return result;
+    }
+}
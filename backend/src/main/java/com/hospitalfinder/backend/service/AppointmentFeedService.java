@@ -0,0 +1,150 @@
+package com.hospitalfinder.backend.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.hospitalfinder.backend.dto.AppointmentPageCursor;
+import com.hospitalfinder.backend.dto.AppointmentResponseDTO;
+import com.hospitalfinder.backend.dto.CursorPage;
+import com.hospitalfinder.backend.entity.Appointment;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Time-windowed, keyset-paginated appointment feeds for the dashboards.
+ *
+ * Feeds are ordered by appointment time then id, and each page is a range scan
+ * of a {@code scope + appointmentTime + _id} index ({@link #indexes()}) that
+ * stops after {@code limit + 1} entries, so page cost does not grow with the
+ * years of history behind it. Without explicit bounds an ascending feed starts
+ * today (upcoming first) and a descending one ends today (most recent first).
+ */
+@Service
+@RequiredArgsConstructor
+public class AppointmentFeedService {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private final MongoTemplate mongoTemplate;
+    private final AppointmentEnrichmentService appointmentEnrichmentService;
+
+    /**
+     * Indexes matching the feed sort for clinic, doctor and admin feeds; their
+     * clinicId/doctorId prefixes also serve plain per-clinic/per-doctor lookups.
+     */
+    public static List<Index> indexes() {
+        return List.of(
+                new Index().on("clinicId", Sort.Direction.ASC).on("appointmentTime", Sort.Direction.ASC)
+                        .on("_id", Sort.Direction.ASC).named("clinic_time_id"),
+                new Index().on("doctorId", Sort.Direction.ASC).on("appointmentTime", Sort.Direction.ASC)
+                        .on("_id", Sort.Direction.ASC).named("doctor_time_id"),
+                new Index().on("appointmentTime", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+                        .named("time_id"));
+    }
+
+    /**
+     * One page of appointments in {@code scope} (on clinicId/doctorId) between
+     * {@code from} and {@code to} inclusive, optionally with the given status.
+     * {@code order} is {@code asc} (default) or {@code desc}.
+     */
+    public CursorPage<AppointmentResponseDTO> page(Criteria scope, LocalDate from, LocalDate to, String status,
+            String order, String cursor, Integer limit) {
+        boolean descending = descending(order);
+        int pageSize = limit != null ? limit : DEFAULT_LIMIT;
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (from == null && to == null) {
+            if (descending) {
+                to = LocalDate.now();
+            } else {
+                from = LocalDate.now();
+            }
+        }
+
+        List<Criteria> filters = window(scope, from, to, status);
+        AppointmentPageCursor after = AppointmentPageCursor.decode(cursor);
+        if (after != null) {
+            filters.add(descending
+                    ? new Criteria().orOperator(
+                            Criteria.where("appointmentTime").lt(after.appointmentTime()),
+                            Criteria.where("appointmentTime").is(after.appointmentTime()).and("id").lt(after.id()))
+                    : new Criteria().orOperator(
+                            Criteria.where("appointmentTime").gt(after.appointmentTime()),
+                            Criteria.where("appointmentTime").is(after.appointmentTime()).and("id").gt(after.id())));
+        }
+        Query query = matching(filters);
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        query.with(Sort.by(direction, "appointmentTime").and(Sort.by(direction, "id")));
+        query.limit(pageSize + 1);
+
+        List<Appointment> appointments = new ArrayList<>(mongoTemplate.find(query, Appointment.class));
+        String nextCursor = null;
+        if (appointments.size() > pageSize) {
+            appointments = appointments.subList(0, pageSize);
+            Appointment last = appointments.get(pageSize - 1);
+            nextCursor = new AppointmentPageCursor(last.getAppointmentTime(), last.getId()).encode();
+        }
+        return new CursorPage<>(appointmentEnrichmentService.enrich(appointments), nextCursor);
+    }
+
+    /**
+     * Every appointment in {@code scope} within the optional bounds, for exports.
+     * The caller closes the stream.
+     */
+    public Stream<AppointmentResponseDTO> stream(Criteria scope, LocalDate from, LocalDate to, String status,
+            int batchSize) {
+        Query query = matching(window(scope, from, to, status)).cursorBatchSize(batchSize);
+        return appointmentEnrichmentService.enrich(mongoTemplate.stream(query, Appointment.class), batchSize);
+    }
+
+    private static List<Criteria> window(Criteria scope, LocalDate from, LocalDate to, String status) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        List<Criteria> filters = new ArrayList<>();
+        if (!scope.getCriteriaObject().isEmpty()) {
+            filters.add(scope);
+        }
+        if (from != null || to != null) {
+            Criteria time = Criteria.where("appointmentTime");
+            if (from != null) {
+                time = time.gte(from.atStartOfDay());
+            }
+            if (to != null) {
+                time = time.lt(to.plusDays(1).atStartOfDay());
+            }
+            filters.add(time);
+        }
+        if (status != null && !status.isBlank()) {
+            // Statuses are compared case-insensitively elsewhere, so match them the same way here
+            filters.add(Criteria.where("status").regex("^" + Pattern.quote(status.trim()) + "$", "i"));
+        }
+        return filters;
+    }
+
+    private static Query matching(List<Criteria> filters) {
+        return filters.isEmpty() ? new Query() : new Query(new Criteria().andOperator(filters));
+    }
+
+    private static boolean descending(String order) {
+        if (order == null || order.isBlank() || order.equalsIgnoreCase("asc")) {
+            return false;
+        }
+        if (order.equalsIgnoreCase("desc")) {
+            return true;
+        }
+        throw new IllegalArgumentException("order must be asc or desc");
+    }
+}
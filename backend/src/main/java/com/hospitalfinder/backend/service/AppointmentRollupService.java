@@ -0,0 +1,459 @@
+package com.hospitalfinder.backend.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.hospitalfinder.backend.entity.Appointment;
+import com.hospitalfinder.backend.entity.AppointmentRollup;
+import com.hospitalfinder.backend.entity.Doctor;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Per clinic, per doctor, per day appointment counters ({@link AppointmentRollup}),
+ * plus one row per clinic, doctor and patient so distinct patients are a count
+ * of rows rather than a grouping of appointments.
+ *
+ * Every write through {@link AppointmentBookingService} is mirrored here as
+ * atomic {@code $inc} upserts, so dashboards read a handful of rollup rows per
+ * day instead of scanning appointments. If an increment fails its day (or the
+ * patient rows) is marked dirty, and {@link #reconcile(LocalDate, LocalDate)} /
+ * {@link #reconcilePatients()} recompute from the source collection and repair
+ * rows that drifted. Repairs are conditional on the row's revision, so they
+ * never overwrite an increment that raced them.
+ */
+@Service
+@RequiredArgsConstructor
+public class AppointmentRollupService {
+
+    public static final String CANCELLED = "CANCELLED";
+
+    private final MongoTemplate mongoTemplate;
+
+    // Days whose increments failed; repaired on the next reconciliation
+    private final Set<LocalDate> dirtyDays = ConcurrentHashMap.newKeySet();
+    // Set when a patient row increment failed
+    private volatile boolean patientsDirty;
+
+    /**
+     * Rollup totals over a scope, with per-day totals, totals per doctor
+     * specialization, distinct patients, and the document counts of any other
+     * collections asked for (by collection name).
+     */
+    public record Summary(long booked, long cancelled, long total, Map<LocalDate, Long> perDay,
+            Map<String, Long> bySpecialization, long distinctPatients, Map<String, Long> collectionCounts) {
+    }
+
+    // A day row when date is set, otherwise a patient row for userId
+    private record Delta(String clinicId, String doctorId, LocalDate date, String userId, long booked,
+            long cancelled, long total) {
+
+        String id() {
+            return date != null ? rollupId(clinicId, doctorId, date.toString())
+                    : patientRowId(clinicId, doctorId, userId);
+        }
+
+        boolean isZero() {
+            return booked == 0 && cancelled == 0 && total == 0;
+        }
+
+        Delta plus(Delta other) {
+            return new Delta(clinicId, doctorId, date, userId,
+                    booked + other.booked, cancelled + other.cancelled, total + other.total);
+        }
+    }
+
+    public static List<Index> indexes() {
+        return List.of(
+                new Index().on("clinicId", Sort.Direction.ASC).on("date", Sort.Direction.ASC),
+                new Index().on("doctorId", Sort.Direction.ASC).on("date", Sort.Direction.ASC),
+                new Index().on("date", Sort.Direction.ASC));
+    }
+
+    public void recorded(Appointment appointment) {
+        apply(Arrays.asList(delta(appointment, 1), patientDelta(appointment, 1)));
+    }
+
+    /**
+     * {@code previous} as stored before the edit, {@code saved} as stored after.
+     */
+    public void changed(Appointment previous, Appointment saved) {
+        apply(Arrays.asList(delta(previous, -1), delta(saved, 1),
+                patientDelta(previous, -1), patientDelta(saved, 1)));
+    }
+
+    public void removed(Appointment appointment) {
+        apply(Arrays.asList(delta(appointment, -1), patientDelta(appointment, -1)));
+    }
+
+    public boolean hasRollups() {
+        return mongoTemplate.exists(new Query(Criteria.where("date").ne(null)), AppointmentRollup.class);
+    }
+
+    public boolean hasPatientRollups() {
+        return mongoTemplate.exists(new Query(Criteria.where("userId").ne(null)), AppointmentRollup.class);
+    }
+
+    /**
+     * Totals for appointments matching {@code scope} (on clinicId/doctorId), with
+     * per-day totals between {@code first} and {@code last} inclusive, in one
+     * aggregate. The document counts of {@code countCollections} come from their
+     * metadata ({@code $collStats}) through {@code $unionWith}, and specializations
+     * are looked up from the doctors collection inside the same aggregate.
+     */
+    public Summary summary(Criteria scope, LocalDate first, LocalDate last, Class<?>... countCollections) {
+        Document dayRows = new Document("$match", new Document("date", new Document("$ne", null)));
+        List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(Aggregation.match(scope));
+        for (Class<?> type : countCollections) {
+            String collection = mongoTemplate.getCollectionName(type);
+            // One document per shard, each with that shard's count
+            stages.add(context -> new Document("$unionWith", new Document("coll", collection)
+                    .append("pipeline", List.of(
+                            new Document("$collStats", new Document("count", new Document())),
+                            new Document("$project", new Document("_id", 0)
+                                    .append("collection", collection)
+                                    .append("count", "$count"))))));
+        }
+        stages.add(context -> new Document("$facet", new Document()
+                .append("totals", List.of(dayRows, new Document("$group", new Document("_id", null)
+                        .append("booked", new Document("$sum", "$booked"))
+                        .append("cancelled", new Document("$sum", "$cancelled"))
+                        .append("total", new Document("$sum", "$total")))))
+                .append("byDay", List.of(
+                        new Document("$match", new Document("date",
+                                new Document("$gte", first.toString()).append("$lte", last.toString()))),
+                        new Document("$group", new Document("_id", "$date")
+                                .append("total", new Document("$sum", "$total")))))
+                .append("bySpecialization", List.of(dayRows,
+                        new Document("$group", new Document("_id", "$doctorId")
+                                .append("total", new Document("$sum", "$total"))),
+                        // Doctor ids are stored as ObjectIds when they look like one
+                        new Document("$addFields", new Document("doctorKey", new Document("$convert",
+                                new Document("input", "$_id").append("to", "objectId")
+                                        .append("onError", "$_id").append("onNull", null)))),
+                        new Document("$lookup", new Document("from", mongoTemplate.getCollectionName(Doctor.class))
+                                .append("localField", "doctorKey")
+                                .append("foreignField", "_id")
+                                .append("as", "doctor")),
+                        new Document("$unwind", "$doctor"),
+                        new Document("$group", new Document("_id",
+                                new Document("$ifNull", List.of("$doctor.specialization", "Unknown")))
+                                .append("total", new Document("$sum", "$total")))))
+                .append("patients", List.of(
+                        new Document("$match", new Document("userId", new Document("$ne", null))
+                                .append("total", new Document("$gt", 0))),
+                        new Document("$group", new Document("_id", "$userId")),
+                        new Document("$count", "count")))
+                .append("collections", List.of(
+                        new Document("$match", new Document("collection", new Document("$ne", null))),
+                        new Document("$group", new Document("_id", "$collection")
+                                .append("count", new Document("$sum", "$count")))))));
+
+        Document result = mongoTemplate.aggregate(Aggregation.newAggregation(stages), AppointmentRollup.class,
+                Document.class).getUniqueMappedResult();
+        if (result == null) {
+            result = new Document();
+        }
+
+        List<Document> totals = result.getList("totals", Document.class, List.of());
+        Document sums = totals.isEmpty() ? new Document() : totals.get(0);
+        Map<LocalDate, Long> perDay = new HashMap<>();
+        for (Document day : result.getList("byDay", Document.class, List.of())) {
+            perDay.put(LocalDate.parse(day.getString("_id")), number(day, "total"));
+        }
+        Map<String, Long> bySpecialization = new TreeMap<>();
+        for (Document specialization : result.getList("bySpecialization", Document.class, List.of())) {
+            bySpecialization.put(String.valueOf(specialization.get("_id")), number(specialization, "total"));
+        }
+        List<Document> patients = result.getList("patients", Document.class, List.of());
+        Map<String, Long> collectionCounts = new LinkedHashMap<>();
+        for (Document collection : result.getList("collections", Document.class, List.of())) {
+            collectionCounts.put(collection.getString("_id"), number(collection, "count"));
+        }
+        return new Summary(number(sums, "booked"), number(sums, "cancelled"), number(sums, "total"), perDay,
+                bySpecialization, patients.isEmpty() ? 0 : number(patients.get(0), "count"), collectionCounts);
+    }
+
+    /**
+     * Recompute the days from {@code from} to {@code to} (inclusive; null for
+     * unbounded) from the appointments collection and repair any rollup row that
+     * differs. Returns the number of rows written or removed.
+     */
+    public int reconcile(LocalDate from, LocalDate to) {
+        ZoneId zone = ZoneId.systemDefault();
+
+        // Rollups first: an increment that lands after this read bumps the revision,
+        // so the conditional repair below skips that row instead of undoing it
+        // Day rows only; patient rows have no date
+        Criteria dates = Criteria.where("date").ne(null);
+        if (from != null) {
+            dates = dates.gte(from.toString());
+        }
+        if (to != null) {
+            dates = dates.lte(to.toString());
+        }
+        Map<String, AppointmentRollup> stored = stored(dates);
+
+        Criteria times = Criteria.where("appointmentTime").ne(null);
+        if (from != null) {
+            times = times.gte(Date.from(from.atStartOfDay(zone).toInstant()));
+        }
+        if (to != null) {
+            times = times.lt(Date.from(to.plusDays(1).atStartOfDay(zone).toInstant()));
+        }
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(times),
+                context -> new Document("$group", new Document("_id", new Document()
+                        .append("clinicId", "$clinicId")
+                        .append("doctorId", "$doctorId")
+                        .append("date", new Document("$dateToString", new Document("format", "%Y-%m-%d")
+                                .append("date", "$appointmentTime")
+                                .append("timezone", zone.getId()))))
+                        .append("booked", countStatus(AppointmentBookingService.BOOKED))
+                        .append("cancelled", countStatus(CANCELLED))
+                        .append("total", new Document("$sum", 1))))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        int repaired = 0;
+        for (Document group : mongoTemplate.aggregate(aggregation, Appointment.class, Document.class)) {
+            Document key = group.get("_id", Document.class);
+            AppointmentRollup expected = new AppointmentRollup();
+            expected.setClinicId(key.getString("clinicId"));
+            expected.setDoctorId(key.getString("doctorId"));
+            expected.setDate(key.getString("date"));
+            expected.setId(rollupId(expected.getClinicId(), expected.getDoctorId(), expected.getDate()));
+            expected.setBooked(number(group, "booked"));
+            expected.setCancelled(number(group, "cancelled"));
+            expected.setTotal(number(group, "total"));
+            repaired += repair(stored, expected);
+        }
+        return repaired + removeAll(stored.values());
+    }
+
+    /**
+     * Recompute every patient row from the appointments collection and repair
+     * any that differ. Returns the number of rows written or removed.
+     */
+    public int reconcilePatients() {
+        patientsDirty = false;
+        try {
+            Map<String, AppointmentRollup> stored = stored(Criteria.where("userId").ne(null));
+            Aggregation aggregation = Aggregation.newAggregation(
+                    Aggregation.match(Criteria.where("userId").ne(null)),
+                    context -> new Document("$group", new Document("_id", new Document()
+                            .append("clinicId", "$clinicId")
+                            .append("doctorId", "$doctorId")
+                            .append("userId", "$userId"))
+                            .append("total", new Document("$sum", 1))))
+                    .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+            int repaired = 0;
+            for (Document group : mongoTemplate.aggregate(aggregation, Appointment.class, Document.class)) {
+                Document key = group.get("_id", Document.class);
+                AppointmentRollup expected = new AppointmentRollup();
+                expected.setClinicId(key.getString("clinicId"));
+                expected.setDoctorId(key.getString("doctorId"));
+                expected.setUserId(key.getString("userId"));
+                expected.setId(patientRowId(expected.getClinicId(), expected.getDoctorId(), expected.getUserId()));
+                expected.setTotal(number(group, "total"));
+                repaired += repair(stored, expected);
+            }
+            return repaired + removeAll(stored.values());
+        } catch (RuntimeException e) {
+            patientsDirty = true;
+            throw e;
+        }
+    }
+
+    /**
+     * Reconcile each day, and the patient rows, whose increments failed since
+     * the last call.
+     */
+    public int reconcileDirtyDays() {
+        int repaired = 0;
+        for (LocalDate day : List.copyOf(dirtyDays)) {
+            dirtyDays.remove(day);
+            try {
+                repaired += reconcile(day, day);
+            } catch (RuntimeException e) {
+                dirtyDays.add(day);
+                throw e;
+            }
+        }
+        if (patientsDirty) {
+            repaired += reconcilePatients();
+        }
+        return repaired;
+    }
+
+    private Map<String, AppointmentRollup> stored(Criteria rows) {
+        Map<String, AppointmentRollup> stored = new HashMap<>();
+        for (AppointmentRollup row : mongoTemplate.find(new Query(rows), AppointmentRollup.class)) {
+            stored.put(row.getId(), row);
+        }
+        return stored;
+    }
+
+    // Write expected if it is missing from stored or differs from it; returns rows written
+    private int repair(Map<String, AppointmentRollup> stored, AppointmentRollup expected) {
+        AppointmentRollup row = stored.remove(expected.getId());
+        if (row == null) {
+            try {
+                mongoTemplate.insert(expected);
+                return 1;
+            } catch (DuplicateKeyException e) {
+                // Created by an increment since we read; the next run checks it
+                return 0;
+            }
+        }
+        if (row.getBooked() == expected.getBooked() && row.getCancelled() == expected.getCancelled()
+                && row.getTotal() == expected.getTotal()) {
+            return 0;
+        }
+        Update update = new Update()
+                .set("booked", expected.getBooked())
+                .set("cancelled", expected.getCancelled())
+                .set("total", expected.getTotal())
+                .inc("revision", 1);
+        return mongoTemplate.updateFirst(unchanged(row), update, AppointmentRollup.class).getModifiedCount() > 0
+                ? 1
+                : 0;
+    }
+
+    // Rows with no appointments left behind them
+    private int removeAll(Collection<AppointmentRollup> rows) {
+        int removed = 0;
+        for (AppointmentRollup row : rows) {
+            if (mongoTemplate.remove(unchanged(row), AppointmentRollup.class).getDeletedCount() > 0) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private void apply(List<Delta> deltas) {
+        // An edit that keeps a row (same clinic, doctor and day or patient) nets out to one delta
+        Map<String, Delta> merged = new LinkedHashMap<>();
+        for (Delta delta : deltas) {
+            if (delta != null) {
+                merged.merge(delta.id(), delta, Delta::plus);
+            }
+        }
+        List<Delta> changes = merged.values().stream()
+                .filter(delta -> !delta.isZero())
+                .toList();
+        if (changes.isEmpty()) {
+            return;
+        }
+        try {
+            BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                    AppointmentRollup.class);
+            for (Delta delta : changes) {
+                Update update = new Update()
+                        .inc("booked", delta.booked())
+                        .inc("cancelled", delta.cancelled())
+                        .inc("total", delta.total())
+                        .inc("revision", 1)
+                        .setOnInsert("clinicId", delta.clinicId())
+                        .setOnInsert("doctorId", delta.doctorId());
+                if (delta.date() != null) {
+                    update.setOnInsert("date", delta.date().toString());
+                } else {
+                    update.setOnInsert("userId", delta.userId());
+                }
+                operations.upsert(new Query(Criteria.where("_id").is(delta.id())), update);
+            }
+            operations.execute();
+        } catch (Exception e) {
+            // The appointment itself is saved; leave the counters to reconciliation
+            for (Delta delta : changes) {
+                if (delta.date() != null) {
+                    dirtyDays.add(delta.date());
+                } else {
+                    patientsDirty = true;
+                }
+            }
+            System.err.println("⚠ Appointment rollup update failed, will reconcile: " + e.getMessage());
+        }
+    }
+
+    private static Delta delta(Appointment appointment, int sign) {
+        if (appointment == null) {
+            return null;
+        }
+        LocalDateTime time = appointment.getAppointmentTime();
+        if (time == null) {
+            return null;
+        }
+        String status = appointment.getStatus();
+        return new Delta(
+                appointment.getClinicId(),
+                appointment.getDoctorId(),
+                time.toLocalDate(),
+                null,
+                AppointmentBookingService.BOOKED.equalsIgnoreCase(status) ? sign : 0,
+                CANCELLED.equalsIgnoreCase(status) ? sign : 0,
+                sign);
+    }
+
+    // Patient rows count appointments of any status, like the day rows' total
+    private static Delta patientDelta(Appointment appointment, int sign) {
+        if (appointment == null || appointment.getUserId() == null) {
+            return null;
+        }
+        return new Delta(appointment.getClinicId(), appointment.getDoctorId(), null, appointment.getUserId(),
+                0, 0, sign);
+    }
+
+    private static Query unchanged(AppointmentRollup row) {
+        return new Query(Criteria.where("_id").is(row.getId()).and("revision").is(row.getRevision()));
+    }
+
+    private static Document countStatus(String status) {
+        return new Document("$sum", new Document("$cond", List.of(
+                new Document("$eq", List.of(
+                        new Document("$toUpper", new Document("$ifNull", List.of("$status", ""))), status)),
+                1, 0)));
+    }
+
+    private static String rollupId(String clinicId, String doctorId, String date) {
+        return Objects.toString(clinicId, "") + "|" + Objects.toString(doctorId, "") + "|" + date;
+    }
+
+    private static String patientRowId(String clinicId, String doctorId, String userId) {
+        return "patient|" + Objects.toString(clinicId, "") + "|" + Objects.toString(doctorId, "") + "|" + userId;
+    }
+
+    private static long number(Document document, String field) {
+        Object value = document.get(field);
+        return value instanceof Number number ? number.longValue() : 0;
+    }
+}
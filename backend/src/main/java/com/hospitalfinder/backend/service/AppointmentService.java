@@ -6,7 +6,6 @@ import com.hospitalfinder.backend.entity.Appointment;
 import com.hospitalfinder.backend.entity.Clinic;
 import com.hospitalfinder.backend.entity.Doctor;
 import com.hospitalfinder.backend.entity.User;
-import com.hospitalfinder.backend.repository.AppointmentRepository;
 import com.hospitalfinder.backend.repository.ClinicRepository;
 import com.hospitalfinder.backend.repository.DoctorRepository;
 import com.hospitalfinder.backend.repository.UserRepository;
@@ -20,7 +19,8 @@ import java.util.Arrays;
 @RequiredArgsConstructor
 public class AppointmentService {
 
-    private final AppointmentRepository appointmentRepository;
+    private final AppointmentBookingService appointmentBookingService;
+    private final SlotHoldService slotHoldService;
     private final UserRepository userRepository;
     private final ClinicRepository clinicRepository;
     private final DoctorRepository doctorRepository;
@@ -38,8 +38,9 @@ public class AppointmentService {
 
         LocalDateTime slot = LocalDateTime.parse(dto.getAppointmentTime());
 
-        if (appointmentRepository.existsByDoctorIdAndAppointmentTime(doctor.getId(), slot)) {
-            throw new RuntimeException("Time slot already booked!");
+        // Not while a chat booking in progress holds the slot
+        if (slotHoldService.isHeld(doctor.getId(), slot, null)) {
+            throw new RuntimeException("This time slot is being booked by someone else; please pick another slot");
         }
 
         Appointment appointment = new Appointment();
@@ -47,7 +48,6 @@ public class AppointmentService {
         appointment.setClinicId(clinic.getId());
         appointment.setDoctorId(doctor.getId());
         appointment.setAppointmentTime(slot);
-        appointment.setStatus("BOOKED");
 
         // patient details
         appointment.setPatientName(dto.getPatientName());
@@ -56,7 +56,8 @@ public class AppointmentService {
         appointment.setPatientPhone(dto.getPatientPhone());
         appointment.setPatientEmail(dto.getPatientEmail());
 
-        appointmentRepository.save(appointment);
+        // Throws SlotAlreadyBookedException if the slot is taken
+        appointment = appointmentBookingService.book(appointment);
 //        googleSheetsService.appendRow(
 //                Arrays.asList(
 //                        appointment.getId(),
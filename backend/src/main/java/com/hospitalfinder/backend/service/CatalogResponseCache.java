@@ -0,0 +1,227 @@
+package com.hospitalfinder.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Serialized JSON responses for the catalog list endpoints, keyed by normalized
+ * query and clinic catalog version.
+ *
+ * Each entry keeps the body bytes (plus a gzip copy for bodies worth
+ * compressing) and a strong ETag hashed from the bytes, so the same content gets
+ * the same ETag across restarts and instances. A request whose
+ * {@code If-None-Match} matches a cached entry gets a 304 without running the
+ * query or Jackson; any other hit is served from the stored bytes. Entries are
+ * dropped whenever a clinic changes and are bounded by count and total size.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogResponseCache implements ClinicCatalogListener {
+
+    private static final int MAX_ENTRIES = 256;
+    private static final long MAX_BYTES = 32L * 1024 * 1024;
+    // Below this gzip saves less than the header overhead is worth
+    private static final int MIN_GZIP_BYTES = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final ClinicCatalog clinicCatalog;
+
+    // Guarded by itself
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes = 0;
+
+    private record Entry(String etag, byte[] identity, byte[] gzip, HttpHeaders headers) {
+
+        long size() {
+            return identity.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    /**
+     * Respond from the cache, calling {@code loader} only on a miss. The loader's
+     * body is serialized as JSON and its headers (e.g. a next-page cursor) are
+     * kept with the entry; non-2xx responses are passed through uncached.
+     */
+    public ResponseEntity<?> respond(String key, String ifNoneMatch, String acceptEncoding,
+            Supplier<? extends ResponseEntity<?>> loader) {
+        // Read the version first so a write racing the load leaves a stale key, not a stale body
+        String versionedKey = clinicCatalog.snapshot().version() + ":" + key;
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(versionedKey);
+        }
+        if (entry == null) {
+            ResponseEntity<?> response = loader.get();
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                return response;
+            }
+            entry = store(versionedKey, serialize(response.getBody()), response.getHeaders());
+        }
+
+        boolean gzip = entry.gzip() != null && acceptsGzip(acceptEncoding);
+        String etag = gzip ? gzipEtag(entry.etag()) : entry.etag();
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(entry.headers());
+        headers.setETag(etag);
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        // Clients may keep the body but must revalidate; a 304 costs a map lookup
+        headers.setCacheControl("no-cache");
+
+        if (matches(ifNoneMatch, entry.etag())) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return new ResponseEntity<>(gzip ? entry.gzip() : entry.identity(), headers, HttpStatus.OK);
+    }
+
+    @Override
+    public void clinicChanged(String clinicId) {
+        clear();
+    }
+
+    @Override
+    public void invalidate() {
+        clear();
+    }
+
+    private void clear() {
+        synchronized (entries) {
+            entries.clear();
+            totalBytes = 0;
+        }
+    }
+
+    private Entry store(String key, byte[] body, HttpHeaders responseHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        // Content headers are set per response
+        responseHeaders.forEach((name, values) -> {
+            if (!name.equalsIgnoreCase(HttpHeaders.CONTENT_TYPE) && !name.equalsIgnoreCase(HttpHeaders.CONTENT_LENGTH)) {
+                headers.addAll(name, values);
+            }
+        });
+        Entry entry = new Entry(etag(body), body, body.length >= MIN_GZIP_BYTES ? gzip(body) : null,
+                HttpHeaders.readOnlyHttpHeaders(headers));
+        if (entry.size() > MAX_BYTES / 4) {
+            return entry; // Too big to be worth holding
+        }
+        synchronized (entries) {
+            Entry previous = entries.put(key, entry);
+            totalBytes += entry.size() - (previous != null ? previous.size() : 0);
+            Iterator<Entry> eldest = entries.values().iterator();
+            while ((entries.size() > MAX_ENTRIES || totalBytes > MAX_BYTES) && eldest.hasNext()) {
+                totalBytes -= eldest.next().size();
+                eldest.remove();
+            }
+        }
+        return entry;
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 27) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Each content coding is a different representation, so it gets its own strong tag
+    private static String gzipEtag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    /**
+     * If-None-Match uses weak comparison, and either coding's tag names the same content.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String gzipEtag = gzipEtag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.trim().split(";");
+            String coding = params[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Cache key fragment for a request parameter; null values are left out.
+     */
+    public static String param(String name, Object value) {
+        return value == null ? "" : "&" + name + "=" + URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8);
+    }
+}
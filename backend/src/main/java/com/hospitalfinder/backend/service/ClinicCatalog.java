@@ -0,0 +1,185 @@
+package com.hospitalfinder.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.hospitalfinder.backend.entity.Clinic;
+import com.hospitalfinder.backend.repository.ClinicRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Versioned, read-only snapshot of every clinic, shared by the read paths that
+ * used to call {@code clinicRepository.findAll()}.
+ *
+ * Readers grab the current {@link Snapshot} without locking; writers build a new
+ * snapshot from a copy and swap it in, bumping the version. Writes made through
+ * our services call {@link #upsert}/{@link #remove}/{@link #reload}, and
+ * {@code ClinicChangeStreamWatcher} does the same for changes made directly in
+ * MongoDB. The snapshot is built lazily on first use and after
+ * {@link #invalidate()}.
+ *
+ * Clinic objects in a snapshot are shared: callers must not modify them. Load a
+ * fresh copy from the repository before editing and saving a clinic.
+ *
+ * Snapshot clinics are loaded without their embedded doctors (see
+ * {@link ClinicRepository#CATALOG_FIELDS}); read doctors from the doctors
+ * collection, as {@code ClinicDetailService} does.
+ */
+@Component
+public class ClinicCatalog {
+
+    private final ClinicRepository clinicRepository;
+    private final ObjectProvider<ClinicCatalogListener> listeners;
+
+    private volatile Snapshot snapshot;
+    private long lastVersion = 0; // Guarded by `this`
+
+    public record Snapshot(long version, Instant builtAt, List<Clinic> clinics, Map<String, Clinic> byId) {
+
+        public Optional<Clinic> findById(String clinicId) {
+            return clinicId == null ? Optional.empty() : Optional.ofNullable(byId.get(clinicId));
+        }
+    }
+
+    public ClinicCatalog(ClinicRepository clinicRepository, ObjectProvider<ClinicCatalogListener> listeners,
+            MeterRegistry meterRegistry) {
+        this.clinicRepository = clinicRepository;
+        this.listeners = listeners;
+
+        // Gauges read the current snapshot only; they never trigger a load
+        Gauge.builder("clinic.catalog.version", this, catalog -> {
+            Snapshot current = catalog.snapshot;
+            return current != null ? current.version() : 0;
+        }).description("Version of the in-memory clinic catalog snapshot").register(meterRegistry);
+        Gauge.builder("clinic.catalog.age", this, catalog -> {
+            Snapshot current = catalog.snapshot;
+            return current != null ? Duration.between(current.builtAt(), Instant.now()).toMillis() / 1000.0 : 0;
+        }).baseUnit("seconds").description("Time since the clinic catalog snapshot was built")
+                .register(meterRegistry);
+        Gauge.builder("clinic.catalog.size", this, catalog -> {
+            Snapshot current = catalog.snapshot;
+            return current != null ? current.clinics().size() : 0;
+        }).description("Clinics in the catalog snapshot").register(meterRegistry);
+    }
+
+    /**
+     * The current snapshot, loading it from Mongo if needed.
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                Map<String, Clinic> byId = new LinkedHashMap<>();
+                for (Clinic clinic : clinicRepository.findAllForCatalog()) {
+                    if (clinic.getId() != null) {
+                        byId.put(clinic.getId(), clinic);
+                    }
+                }
+                snapshot = newSnapshot(byId);
+                System.out.println("✓ Clinic catalog loaded: " + byId.size() + " clinics (version "
+                        + snapshot.version() + ")");
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * The current snapshot, or null if it has not been loaded (or was invalidated).
+     */
+    public Snapshot current() {
+        return snapshot;
+    }
+
+    public List<Clinic> clinics() {
+        return snapshot().clinics();
+    }
+
+    public Optional<Clinic> findById(String clinicId) {
+        return snapshot().findById(clinicId);
+    }
+
+    /**
+     * Publish a saved clinic.
+     */
+    public void upsert(Clinic clinic) {
+        if (clinic == null || clinic.getId() == null) {
+            return;
+        }
+        if (swap(clinic.getId(), clinic)) {
+            notifyChanged(clinic.getId());
+        }
+    }
+
+    /**
+     * Drop a deleted clinic.
+     */
+    public void remove(String clinicId) {
+        if (clinicId != null && swap(clinicId, null)) {
+            notifyChanged(clinicId);
+        }
+    }
+
+    /**
+     * Re-read one clinic from Mongo, e.g. after its doctors changed.
+     */
+    public void reload(String clinicId) {
+        if (clinicId == null || snapshot == null) {
+            return;
+        }
+        clinicRepository.findByIdForCatalog(clinicId).ifPresentOrElse(this::upsert, () -> remove(clinicId));
+    }
+
+    /**
+     * Drop the snapshot; the next read rebuilds it from Mongo.
+     */
+    public void invalidate() {
+        synchronized (this) {
+            snapshot = null;
+        }
+        listeners.orderedStream().forEach(ClinicCatalogListener::invalidate);
+    }
+
+    /**
+     * Copy-on-write replace (or remove, if {@code clinic} is null) of one entry.
+     * Returns false if there is no snapshot yet; the initial load will see the
+     * change in Mongo.
+     */
+    private synchronized boolean swap(String clinicId, Clinic clinic) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return false;
+        }
+        Map<String, Clinic> byId = new LinkedHashMap<>(current.byId());
+        if (clinic != null) {
+            byId.put(clinicId, clinic);
+        } else if (byId.remove(clinicId) == null) {
+            return false;
+        }
+        snapshot = newSnapshot(byId);
+        return true;
+    }
+
+    private Snapshot newSnapshot(Map<String, Clinic> byId) {
+        return new Snapshot(++lastVersion, Instant.now(),
+                Collections.unmodifiableList(new ArrayList<>(byId.values())),
+                Collections.unmodifiableMap(byId));
+    }
+
+    private void notifyChanged(String clinicId) {
+        listeners.orderedStream().forEach(listener -> listener.clinicChanged(clinicId));
+    }
+}
@@ -0,0 +1,20 @@
+package com.hospitalfinder.backend.service;
+
+/**
+ * Derived clinic structures (indexes) that follow the {@link ClinicCatalog}.
+ * Notifications are delivered after the new snapshot is published and outside
+ * the catalog lock.
+ */
+public interface ClinicCatalogListener {
+
+    /**
+     * A clinic was added, changed or removed. Read its current state from
+     * {@link ClinicCatalog#current()}; a missing entry means it was removed.
+     */
+    void clinicChanged(String clinicId);
+
+    /**
+     * The catalog was dropped and will be rebuilt from Mongo on next use.
+     */
+    void invalidate();
+}
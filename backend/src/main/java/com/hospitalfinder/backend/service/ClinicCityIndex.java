@@ -0,0 +1,203 @@
+package com.hospitalfinder.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.hospitalfinder.backend.entity.Clinic;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Distinct clinic cities with typo-tolerant lookup.
+ *
+ * The city list comes from a single Mongo {@code distinct} and is cached until a
+ * clinic changes. Suggestions use a BK-tree keyed by the lower-cased city name:
+ * the triangle inequality lets a lookup with edit distance {@code d} skip every
+ * subtree whose edge label is outside {@code [dist - d, dist + d]}, and each
+ * comparison is a bounded Levenshtein that gives up once the distance exceeds
+ * {@code d}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClinicCityIndex implements ClinicCatalogListener {
+
+    private final MongoTemplate mongoTemplate;
+
+    private volatile Cities cities;
+
+    public record Suggestion(String city, int distance) {
+    }
+
+    private record Cities(Map<String, String> byKey, BkNode root) {
+    }
+
+    /**
+     * Distinct city names as stored (first spelling wins for case variants), sorted.
+     */
+    public List<String> cities() {
+        List<String> result = new ArrayList<>(load().byKey().values());
+        result.sort(String.CASE_INSENSITIVE_ORDER);
+        return result;
+    }
+
+    /**
+     * True if some clinic is in this city (case-insensitive).
+     */
+    public boolean contains(String city) {
+        return city != null && load().byKey().containsKey(key(city));
+    }
+
+    /**
+     * Up to {@code limit} cities within {@code maxDistance} edits of the query,
+     * closest first, then alphabetical.
+     */
+    public List<String> suggest(String query, int maxDistance, int limit) {
+        if (query == null || query.isBlank() || limit <= 0) {
+            return List.of();
+        }
+        Cities current = load();
+        if (current.root() == null) {
+            return List.of();
+        }
+
+        String needle = key(query);
+        List<Suggestion> matches = new ArrayList<>();
+        List<BkNode> pending = new ArrayList<>();
+        pending.add(current.root());
+        while (!pending.isEmpty()) {
+            BkNode node = pending.remove(pending.size() - 1);
+            // Exact distance is only needed up to the widest child edge we might follow
+            int distance = boundedLevenshtein(needle, node.key, maxDistance + node.maxEdge);
+            if (distance <= maxDistance) {
+                matches.add(new Suggestion(current.byKey().get(node.key), distance));
+            }
+            for (Map.Entry<Integer, BkNode> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                    pending.add(child.getValue());
+                }
+            }
+        }
+
+        matches.sort(Comparator.comparingInt(Suggestion::distance)
+                .thenComparing(Suggestion::city, String.CASE_INSENSITIVE_ORDER));
+        return matches.stream()
+                .limit(limit)
+                .map(Suggestion::city)
+                .toList();
+    }
+
+    @Override
+    public void clinicChanged(String clinicId) {
+        // A city may have been added or emptied; re-run distinct on next use
+        cities = null;
+    }
+
+    @Override
+    public void invalidate() {
+        cities = null;
+    }
+
+    private Cities load() {
+        Cities current = cities;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (cities == null) {
+                Map<String, String> byKey = new LinkedHashMap<>();
+                for (String city : mongoTemplate.findDistinct(new Query(), "city", Clinic.class, String.class)) {
+                    if (city != null && !city.isBlank()) {
+                        byKey.putIfAbsent(key(city), city.trim());
+                    }
+                }
+                BkNode root = null;
+                for (String key : byKey.keySet()) {
+                    if (root == null) {
+                        root = new BkNode(key);
+                    } else {
+                        root.add(key);
+                    }
+                }
+                cities = new Cities(byKey, root);
+                System.out.println("✓ City index loaded: " + byKey.size() + " cities");
+            }
+            return cities;
+        }
+    }
+
+    private static String key(String city) {
+        return city.trim().toLowerCase();
+    }
+
+    /**
+     * Levenshtein distance, or {@code max + 1} as soon as it is known to exceed
+     * {@code max}. Two rows, so O(min(n, m)) memory.
+     */
+    static int boundedLevenshtein(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        if (a.length() < b.length()) {
+            String swap = a;
+            a = b;
+            b = swap;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    private static final class BkNode {
+        private final String key;
+        private final Map<Integer, BkNode> children = new HashMap<>();
+        private int maxEdge = 0;
+
+        private BkNode(String key) {
+            this.key = key;
+        }
+
+        private void add(String value) {
+            BkNode node = this;
+            while (true) {
+                int distance = boundedLevenshtein(value, node.key, Integer.MAX_VALUE - 1);
+                if (distance == 0) {
+                    return;
+                }
+                BkNode child = node.children.get(distance);
+                if (child == null) {
+                    node.children.put(distance, new BkNode(value));
+                    node.maxEdge = Math.max(node.maxEdge, distance);
+                    return;
+                }
+                node = child;
+            }
+        }
+    }
+}
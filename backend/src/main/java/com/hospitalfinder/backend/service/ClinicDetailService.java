@@ -0,0 +1,109 @@
+package com.hospitalfinder.backend.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import com.hospitalfinder.backend.dto.ClinicResponseDTO;
+import com.hospitalfinder.backend.entity.Clinic;
+import com.hospitalfinder.backend.entity.Doctor;
+
+/**
+ * Clinic detail (clinic plus its doctors) in one MongoDB round trip, behind a
+ * short-lived cache.
+ *
+ * The read is a single aggregation: match the clinic by id, then {@code $lookup}
+ * its doctors through the {@code doctors.clinicId} index. Doctors store the
+ * clinic id as a string, so the clinic's {@code _id} is converted first to keep
+ * the lookup a plain equality join. Cached details expire after
+ * {@code clinics.detail.cache-ttl} and are evicted when the clinic or its
+ * doctors change.
+ */
+@Service
+public class ClinicDetailService implements ClinicCatalogListener {
+
+    private final MongoTemplate mongoTemplate;
+    private final long ttlMillis;
+
+    private final Map<String, Cached> cache = new ConcurrentHashMap<>();
+
+    private record Cached(ClinicResponseDTO detail, long expiresAt) {
+    }
+
+    public ClinicDetailService(MongoTemplate mongoTemplate,
+            @Value("${clinics.detail.cache-ttl:30s}") Duration ttl) {
+        this.mongoTemplate = mongoTemplate;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /**
+     * The clinic with its doctors, or empty if there is no such clinic. The
+     * returned DTO is shared with other callers and must not be modified.
+     */
+    public Optional<ClinicResponseDTO> findById(String clinicId) {
+        if (clinicId == null || clinicId.isBlank()) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        Cached cached = cache.get(clinicId);
+        if (cached != null && cached.expiresAt() > now) {
+            return Optional.of(cached.detail());
+        }
+
+        Optional<ClinicResponseDTO> detail = load(clinicId);
+        // Unknown ids are not cached, so the map only grows with real clinics
+        detail.ifPresentOrElse(
+                value -> cache.put(clinicId, new Cached(value, now + ttlMillis)),
+                () -> cache.remove(clinicId));
+        return detail;
+    }
+
+    /**
+     * Drop the cached detail for a clinic, e.g. after one of its doctors changed.
+     */
+    public void evict(String clinicId) {
+        if (clinicId != null) {
+            cache.remove(clinicId);
+        }
+    }
+
+    @Override
+    public void clinicChanged(String clinicId) {
+        evict(clinicId);
+    }
+
+    @Override
+    public void invalidate() {
+        cache.clear();
+    }
+
+    private Optional<ClinicResponseDTO> load(String clinicId) {
+        Object id = ObjectId.isValid(clinicId) ? new ObjectId(clinicId) : clinicId;
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("_id").is(id)),
+                Aggregation.limit(1),
+                context -> new Document("$addFields",
+                        new Document("clinicIdString", new Document("$toString", "$_id"))),
+                context -> new Document("$lookup", new Document()
+                        .append("from", mongoTemplate.getCollectionName(Doctor.class))
+                        .append("localField", "clinicIdString")
+                        .append("foreignField", "clinicId")
+                        .append("as", "doctors")));
+
+        Document result = mongoTemplate.aggregate(aggregation, Clinic.class, Document.class).getUniqueMappedResult();
+        if (result == null) {
+            return Optional.empty();
+        }
+        Clinic clinic = mongoTemplate.getConverter().read(Clinic.class, result);
+        return Optional.of(new ClinicResponseDTO(clinic));
+    }
+}
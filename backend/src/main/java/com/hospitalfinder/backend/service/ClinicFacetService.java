@@ -0,0 +1,206 @@
+package com.hospitalfinder.backend.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+
+import com.hospitalfinder.backend.dto.ClinicFacetsDTO;
+import com.hospitalfinder.backend.entity.Clinic;
+import com.hospitalfinder.backend.entity.Specialization;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Clinic counts per specialization and per city for a filter state.
+ *
+ * Per catalog version, every clinic gets an ordinal and each specialization and
+ * city a bitset of ordinals, so a facet count is a few bitset ANDs and a
+ * popcount. Counts are disjunctive, as filter panels expect: specialization
+ * counts apply every filter except the specialization filter, and city counts
+ * every filter except the city. Results are cached per normalized filter key
+ * until the catalog changes.
+ */
+@Service
+@RequiredArgsConstructor
+public class ClinicFacetService {
+
+    private static final int MAX_CACHED_FILTERS = 256;
+
+    private final ClinicCatalog clinicCatalog;
+    private final ClinicSearchIndex clinicSearchIndex;
+    private final ClinicGeoIndex clinicGeoIndex;
+
+    private volatile Postings postings;
+
+    // Guarded by itself
+    private final Map<String, ClinicFacetsDTO> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ClinicFacetsDTO> eldest) {
+            return size() > MAX_CACHED_FILTERS;
+        }
+    };
+    private long cacheVersion = -1;
+
+    // Bitsets for one catalog snapshot; keys are lower-cased, names keep the first spelling seen
+    private record Postings(long version, int size, Map<String, Integer> ordinalById,
+            Map<String, BitSet> bySpec, Map<String, String> specNames,
+            Map<String, BitSet> byCity, Map<String, String> cityNames) {
+    }
+
+    public ClinicFacetsDTO facets(String city, List<String> specializations, String search,
+            Double lat, Double lng, Double radiusKm) {
+        if (radiusKm != null && (lat == null || lng == null)) {
+            throw new RuntimeException("lat and lng are required when radius is given");
+        }
+        List<String> specs = ClinicSpecializationIndex.normalize(specializations);
+        String cityKey = city != null && !city.isBlank() ? city.trim().toLowerCase() : null;
+        String searchKey = search != null && !search.isEmpty() ? search.toLowerCase() : null;
+
+        Postings p = postings();
+        String key = cacheKey(cityKey, specs, searchKey, lat, lng, radiusKm);
+        synchronized (cache) {
+            if (cacheVersion != p.version()) {
+                cache.clear();
+                cacheVersion = p.version();
+            }
+            ClinicFacetsDTO cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // Filters shared by both facets
+        BitSet base = all(p);
+        if (searchKey != null) {
+            base.and(ordinals(p, clinicSearchIndex.matchingIds(search)));
+        }
+        if (radiusKm != null) {
+            BitSet nearby = new BitSet(p.size());
+            for (ClinicGeoIndex.Hit hit : clinicGeoIndex.withinRadius(lat, lng, radiusKm)) {
+                Integer ordinal = p.ordinalById().get(hit.clinic().getId());
+                if (ordinal != null) {
+                    nearby.set(ordinal);
+                }
+            }
+            base.and(nearby);
+        }
+
+        BitSet cityMask = cityKey != null ? p.byCity().getOrDefault(cityKey, new BitSet()) : all(p);
+        BitSet specMask = all(p);
+        if (!specs.isEmpty()) {
+            specMask = new BitSet(p.size());
+            for (String spec : specs) {
+                BitSet clinics = p.bySpec().get(spec);
+                if (clinics != null) {
+                    specMask.or(clinics);
+                }
+            }
+        }
+
+        BitSet forSpecs = (BitSet) base.clone();
+        forSpecs.and(cityMask);
+        BitSet forCities = (BitSet) base.clone();
+        forCities.and(specMask);
+        BitSet matching = (BitSet) forSpecs.clone();
+        matching.and(specMask);
+
+        ClinicFacetsDTO result = new ClinicFacetsDTO(matching.cardinality(),
+                counts(p.bySpec(), p.specNames(), forSpecs),
+                counts(p.byCity(), p.cityNames(), forCities));
+        synchronized (cache) {
+            if (cacheVersion == p.version()) {
+                cache.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    private static List<ClinicFacetsDTO.FacetCount> counts(Map<String, BitSet> postings, Map<String, String> names,
+            BitSet filter) {
+        List<ClinicFacetsDTO.FacetCount> counts = new ArrayList<>();
+        for (Map.Entry<String, BitSet> entry : postings.entrySet()) {
+            BitSet matches = (BitSet) entry.getValue().clone();
+            matches.and(filter);
+            int count = matches.cardinality();
+            if (count > 0) {
+                counts.add(new ClinicFacetsDTO.FacetCount(names.get(entry.getKey()), count));
+            }
+        }
+        counts.sort(Comparator.comparingLong(ClinicFacetsDTO.FacetCount::getCount).reversed()
+                .thenComparing(ClinicFacetsDTO.FacetCount::getValue, String.CASE_INSENSITIVE_ORDER));
+        return counts;
+    }
+
+    private static BitSet all(Postings p) {
+        BitSet all = new BitSet(p.size());
+        all.set(0, p.size());
+        return all;
+    }
+
+    private static BitSet ordinals(Postings p, Set<String> clinicIds) {
+        BitSet result = new BitSet(p.size());
+        for (String id : clinicIds) {
+            Integer ordinal = p.ordinalById().get(id);
+            if (ordinal != null) {
+                result.set(ordinal);
+            }
+        }
+        return result;
+    }
+
+    private static String cacheKey(String city, List<String> specs, String search, Double lat, Double lng,
+            Double radiusKm) {
+        List<String> sortedSpecs = new ArrayList<>(specs);
+        sortedSpecs.sort(null);
+        // ~11 m of rounding on the point is plenty for a radius filter
+        String point = radiusKm != null
+                ? String.format("%.4f,%.4f,%.3f", lat, lng, radiusKm)
+                : "";
+        return String.join("\u0000", city != null ? city : "", String.join("\u0001", sortedSpecs),
+                search != null ? search : "", point);
+    }
+
+    private Postings postings() {
+        ClinicCatalog.Snapshot snapshot = clinicCatalog.snapshot();
+        Postings current = postings;
+        if (current != null && current.version() == snapshot.version()) {
+            return current;
+        }
+
+        Map<String, Integer> ordinalById = new HashMap<>();
+        Map<String, BitSet> bySpec = new HashMap<>();
+        Map<String, String> specNames = new HashMap<>();
+        Map<String, BitSet> byCity = new HashMap<>();
+        Map<String, String> cityNames = new HashMap<>();
+        List<Clinic> clinics = snapshot.clinics();
+        for (int ordinal = 0; ordinal < clinics.size(); ordinal++) {
+            Clinic clinic = clinics.get(ordinal);
+            ordinalById.put(clinic.getId(), ordinal);
+            if (clinic.getCity() != null && !clinic.getCity().isBlank()) {
+                String city = clinic.getCity().trim();
+                byCity.computeIfAbsent(city.toLowerCase(), k -> new BitSet()).set(ordinal);
+                cityNames.putIfAbsent(city.toLowerCase(), city);
+            }
+            if (clinic.getSpecializations() != null) {
+                for (Specialization specialization : clinic.getSpecializations()) {
+                    String name = specialization != null ? specialization.getSpecialization() : null;
+                    if (name != null && !name.isBlank()) {
+                        bySpec.computeIfAbsent(name.trim().toLowerCase(), k -> new BitSet()).set(ordinal);
+                        specNames.putIfAbsent(name.trim().toLowerCase(), name.trim());
+                    }
+                }
+            }
+        }
+        current = new Postings(snapshot.version(), clinics.size(), ordinalById, bySpec, specNames, byCity,
+                cityNames);
+        postings = current;
+        return current;
+    }
+}
@@ -0,0 +1,261 @@
+package com.hospitalfinder.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.hospitalfinder.backend.entity.Clinic;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-memory grid index over clinic coordinates.
+ *
+ * Clinics are bucketed into fixed lat/lng cells so "nearest K" and "within R km"
+ * queries only look at the cells around the query point instead of scanning the
+ * whole collection. The index is loaded lazily from the {@link ClinicCatalog} on
+ * first use and kept in sync with it.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClinicGeoIndex implements ClinicCatalogListener {
+
+    private static final double KM_PER_DEGREE = Math.PI * GeoDistanceService.EARTH_RADIUS_KM / 180.0;
+
+    // ~28 km cells: a city usually spans a handful of cells
+    private static final double CELL_DEGREES = 0.25;
+
+    private final ClinicCatalog clinicCatalog;
+    private final GeoDistanceService geoDistanceService;
+
+    private final Map<Long, Map<String, Clinic>> cells = new ConcurrentHashMap<>();
+    private final Map<String, Long> cellByClinicId = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+
+    // Bounding box of populated cells; only grows, which keeps ring searches conservative
+    private volatile int minLatCell = Integer.MAX_VALUE;
+    private volatile int maxLatCell = Integer.MIN_VALUE;
+    private volatile int minLngCell = Integer.MAX_VALUE;
+    private volatile int maxLngCell = Integer.MIN_VALUE;
+
+    public record Hit(Clinic clinic, double distanceKm) {
+    }
+
+    /**
+     * Nearest {@code k} clinics to the given point, closest first.
+     */
+    public List<Hit> nearest(double lat, double lng, int k) {
+        ensureLoaded();
+        if (k <= 0 || cellByClinicId.isEmpty()) {
+            return List.of();
+        }
+        if (k >= cellByClinicId.size()) {
+            return sortedByDistance(lat, lng);
+        }
+
+        NearestClinicSelector best = new NearestClinicSelector(k);
+
+        int latCell = cellOf(lat);
+        int lngCell = cellOf(lng);
+        int maxRing = maxRing(latCell, lngCell);
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int dLat = -ring; dLat <= ring; dLat++) {
+                for (int dLng = -ring; dLng <= ring; dLng++) {
+                    // Only the border of the ring; the inside was visited already
+                    if (Math.abs(dLat) != ring && Math.abs(dLng) != ring) {
+                        continue;
+                    }
+                    Map<String, Clinic> cell = cells.get(key(latCell + dLat, lngCell + dLng));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (Clinic clinic : cell.values()) {
+                        best.offer(clinic, GeoDistanceService.distanceKm(lat, lng, clinic.getLatitude(), clinic.getLongitude()));
+                    }
+                }
+            }
+
+            // Anything outside this ring is at least `ring` whole cells away
+            if (best.isFull() && best.worstDistanceKm() <= ringLowerBoundKm(lat, ring)) {
+                break;
+            }
+        }
+
+        return best.result();
+    }
+
+    /**
+     * All clinics within {@code radiusKm} of the given point, closest first.
+     */
+    public List<Hit> withinRadius(double lat, double lng, double radiusKm) {
+        ensureLoaded();
+        if (radiusKm < 0) {
+            return List.of();
+        }
+
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        double cosLat = Math.cos(Math.toRadians(Math.min(89.0, Math.abs(lat) + latSpan)));
+        double lngSpan = Math.min(180.0, radiusKm / (KM_PER_DEGREE * cosLat));
+
+        double minLatDeg = lat - latSpan;
+        double maxLatDeg = lat + latSpan;
+        double minLngDeg = lng - lngSpan;
+        double maxLngDeg = lng + lngSpan;
+
+        List<Hit> result = new ArrayList<>();
+        for (int latCell = cellOf(minLatDeg); latCell <= cellOf(maxLatDeg); latCell++) {
+            for (int lngCell = cellOf(minLngDeg); lngCell <= cellOf(maxLngDeg); lngCell++) {
+                Map<String, Clinic> cell = cells.get(key(latCell, lngCell));
+                if (cell == null) {
+                    continue;
+                }
+                for (Clinic clinic : cell.values()) {
+                    // Equirectangular bounding box first: border cells reach well past the radius
+                    if (clinic.getLatitude() < minLatDeg || clinic.getLatitude() > maxLatDeg
+                            || clinic.getLongitude() < minLngDeg || clinic.getLongitude() > maxLngDeg) {
+                        continue;
+                    }
+                    double distance = GeoDistanceService.distanceKm(lat, lng, clinic.getLatitude(),
+                            clinic.getLongitude());
+                    if (distance <= radiusKm) {
+                        result.add(new Hit(clinic, distance));
+                    }
+                }
+            }
+        }
+        result.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return result;
+    }
+
+    /**
+     * Every indexed clinic with its distance from the given point, closest first.
+     */
+    public List<Hit> sortedByDistance(double lat, double lng) {
+        // Every clinic is needed, so the grid does not help; use the batch kernel
+        return geoDistanceService.sortedByDistance(lat, lng);
+    }
+
+    /**
+     * Add, move or drop one clinic to match the current catalog snapshot. Clinics
+     * without coordinates are not indexed.
+     */
+    @Override
+    public void clinicChanged(String clinicId) {
+        if (clinicId == null) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                // The initial load reads the latest snapshot
+                return;
+            }
+            ClinicCatalog.Snapshot snapshot = clinicCatalog.current();
+            if (snapshot == null) {
+                invalidate();
+                return;
+            }
+            removeInternal(clinicId);
+            snapshot.findById(clinicId)
+                    .filter(clinic -> clinic.getLatitude() != null && clinic.getLongitude() != null)
+                    .ifPresent(this::addInternal);
+        }
+    }
+
+    /**
+     * Drop everything and reload from the catalog on next use.
+     */
+    @Override
+    public synchronized void invalidate() {
+        loaded = false;
+        cells.clear();
+        cellByClinicId.clear();
+        minLatCell = Integer.MAX_VALUE;
+        maxLatCell = Integer.MIN_VALUE;
+        minLngCell = Integer.MAX_VALUE;
+        maxLngCell = Integer.MIN_VALUE;
+    }
+
+    public int size() {
+        ensureLoaded();
+        return cellByClinicId.size();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            for (Clinic clinic : clinicCatalog.clinics()) {
+                if (clinic.getId() == null || clinic.getLatitude() == null || clinic.getLongitude() == null) {
+                    continue;
+                }
+                addInternal(clinic);
+            }
+            loaded = true;
+            System.out.println("✓ Clinic geo index loaded: " + cellByClinicId.size() + " clinics in "
+                    + cells.size() + " cells");
+        }
+    }
+
+    private void addInternal(Clinic clinic) {
+        int latCell = cellOf(clinic.getLatitude());
+        int lngCell = cellOf(clinic.getLongitude());
+        long key = key(latCell, lngCell);
+        cells.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).put(clinic.getId(), clinic);
+        cellByClinicId.put(clinic.getId(), key);
+
+        minLatCell = Math.min(minLatCell, latCell);
+        maxLatCell = Math.max(maxLatCell, latCell);
+        minLngCell = Math.min(minLngCell, lngCell);
+        maxLngCell = Math.max(maxLngCell, lngCell);
+    }
+
+    private void removeInternal(String clinicId) {
+        Long key = cellByClinicId.remove(clinicId);
+        if (key == null) {
+            return;
+        }
+        Map<String, Clinic> cell = cells.get(key);
+        if (cell != null) {
+            cell.remove(clinicId);
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Smallest ring count that covers every populated cell from the query cell.
+     */
+    private int maxRing(int latCell, int lngCell) {
+        int latRing = Math.max(Math.abs(minLatCell - latCell), Math.abs(maxLatCell - latCell));
+        int lngRing = Math.max(Math.abs(minLngCell - lngCell), Math.abs(maxLngCell - lngCell));
+        return Math.max(latRing, lngRing);
+    }
+
+    /**
+     * Conservative minimum distance to any point outside {@code ring} rings around
+     * the query cell. Longitude cells shrink with latitude, so use the cosine at
+     * the far edge of the ring.
+     */
+    private double ringLowerBoundKm(double lat, int ring) {
+        double edgeLat = Math.min(89.0, Math.abs(lat) + (ring + 1) * CELL_DEGREES);
+        return ring * CELL_DEGREES * KM_PER_DEGREE * Math.cos(Math.toRadians(edgeLat));
+    }
+
+    private static int cellOf(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long key(int latCell, int lngCell) {
+        return ((long) latCell << 32) | (lngCell & 0xffffffffL);
+    }
+}
@@ -0,0 +1,130 @@
+package com.hospitalfinder.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.hospitalfinder.backend.dto.ClinicPageCursor;
+import com.hospitalfinder.backend.dto.CursorPage;
+import com.hospitalfinder.backend.entity.ClinicSummaryView;
+
+/**
+ * Single-pass ranking of clinic candidates for one {@link ClinicSort}.
+ *
+ * Each candidate is scored once when offered, into a tier (match count for
+ * {@code relevance}, otherwise 0; higher first) and a key (lower first), and
+ * clinic id breaks ties. That triple is the page cursor. Candidates at or before
+ * the cursor are dropped on arrival, and when a limit is given only the best
+ * {@code skip + limit + 1} are kept in a bounded heap, so a page costs
+ * O(n log page) and the comparator only reads stored fields. Created by
+ * {@link ClinicRankingService#ranker}.
+ */
+public class ClinicRanker<T extends ClinicSummaryView> {
+
+    /**
+     * Sort key for one candidate: lower comes first.
+     */
+    @FunctionalInterface
+    public interface KeyFunction {
+        double key(ClinicSummaryView clinic, int matchCount, double distanceKm);
+    }
+
+    public record Ranked<T extends ClinicSummaryView>(T clinic, int matchCount, double distanceKm, int tier, double key) {
+    }
+
+    private final ClinicSort sort;
+    private final KeyFunction keyFunction;
+    private final ClinicPageCursor after;
+    private final int skip;
+    private final Integer limit;
+    private final int capacity;
+    // Worst candidate on top when bounded; every candidate in arrival order otherwise
+    private final PriorityQueue<Ranked<T>> heap;
+    private final List<Ranked<T>> all;
+    private final Comparator<Ranked<T>> bestFirst = Comparator.<Ranked<T>>comparingInt(Ranked::tier).reversed()
+            .thenComparingDouble(Ranked::key)
+            .thenComparing(r -> r.clinic().getId(), Comparator.nullsLast(Comparator.naturalOrder()));
+
+    ClinicRanker(ClinicSort sort, KeyFunction keyFunction, ClinicPageCursor after, int skip, Integer limit) {
+        this.sort = sort;
+        this.keyFunction = keyFunction;
+        this.after = after;
+        this.skip = Math.max(0, skip);
+        this.limit = limit != null && limit >= 0 ? limit : null;
+        if (this.limit != null) {
+            // One extra row tells us whether another page exists
+            this.capacity = (int) Math.min(Integer.MAX_VALUE - 1, (long) this.skip + this.limit + 1);
+            this.heap = new PriorityQueue<>(Math.min(capacity, 1024) + 1, bestFirst.reversed());
+            this.all = null;
+        } else {
+            this.capacity = Integer.MAX_VALUE;
+            this.heap = null;
+            this.all = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Score a candidate. Use {@link Double#POSITIVE_INFINITY} for an unknown distance.
+     */
+    public void offer(T clinic, int matchCount, double distanceKm) {
+        int tier = sort == ClinicSort.RELEVANCE ? matchCount : 0;
+        double key = keyFunction.key(clinic, matchCount, distanceKm);
+        if (key == 0) {
+            key = 0.0; // -0.0 would not round-trip through a cursor comparison
+        }
+        if (after != null && !after.isBefore(tier, key, clinic.getId())) {
+            return;
+        }
+        if (heap == null) {
+            all.add(new Ranked<>(clinic, matchCount, distanceKm, tier, key));
+            return;
+        }
+        if (capacity == 0) {
+            return;
+        }
+        if (heap.size() >= capacity && !better(tier, key, clinic.getId(), heap.peek())) {
+            return;
+        }
+        heap.add(new Ranked<>(clinic, matchCount, distanceKm, tier, key));
+        if (heap.size() > capacity) {
+            heap.poll();
+        }
+    }
+
+    /**
+     * The requested page in rank order, with a cursor for the next page if there is one.
+     */
+    public CursorPage<Ranked<T>> page() {
+        List<Ranked<T>> ranked = new ArrayList<>(heap != null ? heap : all);
+        ranked.sort(bestFirst);
+        if (skip > 0) {
+            ranked = ranked.subList(Math.min(skip, ranked.size()), ranked.size());
+        }
+
+        String nextCursor = null;
+        if (limit != null && ranked.size() > limit) {
+            ranked = ranked.subList(0, limit);
+            if (!ranked.isEmpty()) {
+                Ranked<T> last = ranked.get(ranked.size() - 1);
+                nextCursor = new ClinicPageCursor(last.tier(), last.key(), last.clinic().getId()).encode();
+            }
+        }
+        return new CursorPage<>(ranked, nextCursor);
+    }
+
+    private static boolean better(int tier, double key, String id, Ranked<?> other) {
+        if (tier != other.tier()) {
+            return tier > other.tier();
+        }
+        int cmp = Double.compare(key, other.key());
+        if (cmp != 0) {
+            return cmp < 0;
+        }
+        String otherId = other.clinic().getId();
+        if (id == null || otherId == null) {
+            return id != null;
+        }
+        return id.compareTo(otherId) < 0;
+    }
+}
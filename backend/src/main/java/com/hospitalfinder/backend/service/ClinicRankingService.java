@@ -0,0 +1,114 @@
+package com.hospitalfinder.backend.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import com.hospitalfinder.backend.config.RankingProperties;
+import com.hospitalfinder.backend.dto.ClinicPageCursor;
+import com.hospitalfinder.backend.entity.ClinicSummaryView;
+import com.hospitalfinder.backend.entity.Doctor;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Builds {@link ClinicRanker}s for each {@link ClinicSort}.
+ *
+ * The {@code best} score needs doctors per clinic as its availability signal;
+ * those counts come from one grouped aggregation and are cached until a clinic
+ * changes (adding or removing a doctor reloads its clinic in the catalog).
+ */
+@Service
+@RequiredArgsConstructor
+public class ClinicRankingService implements ClinicCatalogListener {
+
+    private final RankingProperties rankingProperties;
+    private final MongoTemplate mongoTemplate;
+
+    private volatile Map<String, Integer> doctorCounts;
+
+    /**
+     * A ranker for one page. {@code specCount} is the number of requested
+     * specializations (0 if none); {@code limit} null ranks every candidate.
+     */
+    public <T extends ClinicSummaryView> ClinicRanker<T> ranker(ClinicSort sort, int specCount,
+            ClinicPageCursor after, int skip, Integer limit) {
+        return new ClinicRanker<>(sort, keyFunction(sort, specCount), after, skip, limit);
+    }
+
+    private ClinicRanker.KeyFunction keyFunction(ClinicSort sort, int specCount) {
+        return switch (sort) {
+            case RELEVANCE, DISTANCE -> (clinic, matchCount, distanceKm) -> distanceKm;
+            case RATING -> (clinic, matchCount, distanceKm) -> clinic.getRating() != null ? -clinic.getRating() : 0;
+            case REVIEWS -> (clinic, matchCount, distanceKm) -> clinic.getReviews() != null ? -clinic.getReviews() : 0;
+            case BEST -> bestScore(specCount);
+        };
+    }
+
+    private ClinicRanker.KeyFunction bestScore(int specCount) {
+        RankingProperties weights = rankingProperties;
+        Map<String, Integer> doctors = doctorCounts();
+        double reviewsScale = Math.log1p(Math.max(1, weights.getReviewsCap()));
+        double doctorsCap = Math.max(1, weights.getDoctorsCap());
+        double halfKm = weights.getDistanceHalfKm() > 0 ? weights.getDistanceHalfKm() : 5.0;
+
+        return (clinic, matchCount, distanceKm) -> {
+            double match = specCount > 0 ? Math.min(1.0, (double) matchCount / specCount) : 0;
+            double proximity = Double.isFinite(distanceKm) ? 1 / (1 + distanceKm / halfKm) : 0;
+            double rating = clinic.getRating() != null ? Math.min(1.0, Math.max(0, clinic.getRating() / 5)) : 0;
+            double reviews = clinic.getReviews() != null && clinic.getReviews() > 0
+                    ? Math.min(1.0, Math.log1p(clinic.getReviews()) / reviewsScale)
+                    : 0;
+            double availability = Math.min(1.0, doctors.getOrDefault(clinic.getId(), 0) / doctorsCap);
+            double score = weights.getMatchWeight() * match
+                    + weights.getDistanceWeight() * proximity
+                    + weights.getRatingWeight() * rating
+                    + weights.getReviewsWeight() * reviews
+                    + weights.getAvailabilityWeight() * availability;
+            // Higher score first; keys sort ascending
+            return -score;
+        };
+    }
+
+    /**
+     * Number of doctors at a clinic, from the cached counts.
+     */
+    public int doctorCount(String clinicId) {
+        return doctorCounts().getOrDefault(clinicId, 0);
+    }
+
+    private Map<String, Integer> doctorCounts() {
+        Map<String, Integer> current = doctorCounts;
+        if (current != null) {
+            return current;
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("clinicId").ne(null)),
+                Aggregation.group("clinicId").count().as("count"));
+        for (Document row : mongoTemplate.aggregate(aggregation, Doctor.class, Document.class)) {
+            Object clinicId = row.get("_id");
+            Number count = row.get("count", Number.class);
+            if (clinicId != null && count != null) {
+                counts.put(clinicId.toString(), count.intValue());
+            }
+        }
+        doctorCounts = counts;
+        return counts;
+    }
+
+    @Override
+    public void clinicChanged(String clinicId) {
+        doctorCounts = null;
+    }
+
+    @Override
+    public void invalidate() {
+        doctorCounts = null;
+    }
+}
@@ -0,0 +1,156 @@
+package com.hospitalfinder.backend.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.hospitalfinder.backend.entity.Clinic;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Trigram index over the lower-cased name, address and city of each clinic.
+ *
+ * A query's trigrams are looked up and their clinic bitsets intersected, which
+ * leaves a small candidate set; candidates are then verified with the same
+ * {@code toLowerCase().contains} check the list endpoints always used, so results
+ * are identical to a full scan. Queries shorter than three characters have no
+ * trigrams and fall back to verifying every indexed clinic in memory.
+ *
+ * The index is immutable and built once per catalog version, then published
+ * through a volatile field, so searches never lock; a search that sees a new
+ * catalog version rebuilds it (concurrent rebuilds build the same index).
+ */
+@Component
+@RequiredArgsConstructor
+public class ClinicSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final ClinicCatalog clinicCatalog;
+
+    private volatile Index index;
+
+    // Clinics of one catalog snapshot by ordinal, and per trigram the ordinals containing it
+    private record Index(long version, List<Clinic> clinics, Map<String, BitSet> clinicsByGram) {
+    }
+
+    /**
+     * Clinics whose name, address or city contains the query (case-insensitive).
+     */
+    public List<Clinic> search(String query) {
+        return search(query, true);
+    }
+
+    /**
+     * Clinics whose name or address (and city, if {@code includeCity}) contains the
+     * query, case-insensitive, in catalog order.
+     */
+    public List<Clinic> search(String query, boolean includeCity) {
+        Index current = index();
+        String needle = query == null ? "" : query.toLowerCase();
+        List<Clinic> result = new ArrayList<>();
+        BitSet candidates = candidates(current, needle);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            Clinic clinic = current.clinics().get(i);
+            if (matches(clinic, needle, includeCity)) {
+                result.add(clinic);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * IDs of clinics whose name, address or city contains the query.
+     */
+    public Set<String> matchingIds(String query) {
+        return matchingIds(query, true);
+    }
+
+    public Set<String> matchingIds(String query, boolean includeCity) {
+        Set<String> ids = new HashSet<>();
+        for (Clinic clinic : search(query, includeCity)) {
+            ids.add(clinic.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Intersection of the posting bitsets for every trigram of the (lower-cased)
+     * needle, rarest first. Short needles match every ordinal.
+     */
+    private static BitSet candidates(Index index, String needle) {
+        if (needle.length() < GRAM) {
+            BitSet all = new BitSet(index.clinics().size());
+            all.set(0, index.clinics().size());
+            return all;
+        }
+
+        List<BitSet> postings = new ArrayList<>();
+        for (String gram : grams(needle)) {
+            BitSet clinics = index.clinicsByGram().get(gram);
+            if (clinics == null) {
+                return new BitSet();
+            }
+            postings.add(clinics);
+        }
+        postings.sort((a, b) -> Integer.compare(a.cardinality(), b.cardinality()));
+
+        // Published bitsets are never written; intersect into a copy
+        BitSet result = (BitSet) postings.get(0).clone();
+        for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+            result.and(postings.get(i));
+        }
+        return result;
+    }
+
+    private static boolean matches(Clinic clinic, String needle, boolean includeCity) {
+        return contains(clinic.getName(), needle)
+                || contains(clinic.getAddress(), needle)
+                || (includeCity && contains(clinic.getCity(), needle));
+    }
+
+    private static boolean contains(String field, String needle) {
+        return field != null && field.toLowerCase().contains(needle);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private Index index() {
+        ClinicCatalog.Snapshot snapshot = clinicCatalog.snapshot();
+        Index current = index;
+        if (current != null && current.version() == snapshot.version()) {
+            return current;
+        }
+
+        List<Clinic> clinics = snapshot.clinics();
+        Map<String, BitSet> clinicsByGram = new HashMap<>();
+        for (int ordinal = 0; ordinal < clinics.size(); ordinal++) {
+            Clinic clinic = clinics.get(ordinal);
+            // Grams are taken per field so none spans two fields
+            for (String field : new String[] { clinic.getName(), clinic.getAddress(), clinic.getCity() }) {
+                if (field == null) {
+                    continue;
+                }
+                for (String gram : grams(field.toLowerCase())) {
+                    clinicsByGram.computeIfAbsent(gram, k -> new BitSet()).set(ordinal);
+                }
+            }
+        }
+        current = new Index(snapshot.version(), clinics, clinicsByGram);
+        index = current;
+        return current;
+    }
+}
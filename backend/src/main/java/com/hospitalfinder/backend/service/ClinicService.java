@@ -1,14 +1,30 @@
 package com.hospitalfinder.backend.service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import com.hospitalfinder.backend.dto.ClinicRequestDTO;
 import com.hospitalfinder.backend.dto.ClinicResponseDTO;
+import com.hospitalfinder.backend.dto.ClinicPageCursor;
 import com.hospitalfinder.backend.dto.ClinicSummaryDTO;
+import com.hospitalfinder.backend.dto.CursorPage;
+import com.hospitalfinder.backend.dto.NearbyClinicDTO;
 import com.hospitalfinder.backend.entity.Clinic;
+import com.hospitalfinder.backend.entity.ClinicSummaryView;
 import com.hospitalfinder.backend.entity.Specialization;
 import com.hospitalfinder.backend.repository.ClinicRepository;
 import com.hospitalfinder.backend.repository.DoctorRepository;
@@ -23,90 +39,224 @@ public class ClinicService {
     private final ClinicRepository clinicRepository;
     private final SpecializationRepository specializationRepository;
     private final DoctorRepository doctorRepository;
+    private final ClinicCatalog clinicCatalog;
+    private final ClinicSpecializationIndex clinicSpecializationIndex;
+    private final ClinicSearchIndex clinicSearchIndex;
+    private final MongoTemplate mongoTemplate;
+    private final EtaService etaService;
+    private final ClinicRankingService clinicRankingService;
+    private final ClinicDetailService clinicDetailService;
 
-    public List<ClinicSummaryDTO> getFilteredClinics(String city, List<String> specializations, String search,
-            Double lat, Double lng) {
-        List<Clinic> clinics;
+    private static final int STREAM_BATCH_SIZE = 200;
 
-        // Start with city-filtered list if provided, otherwise all clinics
-        if (city != null) {
-            clinics = clinicRepository.findByCityIgnoreCase(city);
+    /**
+     * Filtered clinic list in {@code sort} order; the default orders by
+     * specialization match count (desc) then clinic id. With {@code limit} only one
+     * page is built; {@code cursor} continues after the last item of the previous
+     * page (and must come from the same sort).
+     */
+    public CursorPage<ClinicSummaryDTO> getFilteredClinics(String city, List<String> specializations, String search,
+            Double lat, Double lng, ClinicSort sort, String cursor, Integer limit) {
+        CursorPage<ClinicRanker.Ranked<ClinicSummaryView>> page = rankFilteredClinics(city, specializations, search,
+                lat, lng, sort, ClinicPageCursor.decode(cursor), limit);
+        List<ClinicSummaryDTO> items = page.items().stream()
+                .map(r -> toSummary(r.clinic(), lat, lng))
+                .collect(Collectors.toList());
+        return new CursorPage<>(items, page.nextCursor());
+    }
+
+    /**
+     * Same filters and order as {@link #getFilteredClinics}, mapped lazily for
+     * NDJSON export. Without specialization or search filters the default order is
+     * read from a MongoDB cursor in id order, so nothing is materialized; otherwise
+     * clinics come from the in-memory indexes. The caller must close the stream.
+     */
+    public Stream<ClinicSummaryDTO> streamFilteredClinics(String city, List<String> specializations, String search,
+            Double lat, Double lng, ClinicSort sort) {
+        Stream<? extends ClinicSummaryView> clinics;
+        if (sort == ClinicSort.RELEVANCE && ClinicSpecializationIndex.normalize(specializations).isEmpty()
+                && (search == null || search.isEmpty())) {
+            Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).cursorBatchSize(STREAM_BATCH_SIZE);
+            if (city != null) {
+                query.addCriteria(Criteria.where("city").regex("^" + Pattern.quote(city) + "$", "i"));
+            }
+            // Closed projection: only the summary fields are read from Mongo
+            clinics = mongoTemplate.query(Clinic.class).as(ClinicSummaryView.class).matching(query).stream();
         } else {
-            clinics = clinicRepository.findAll();
+            clinics = rankFilteredClinics(city, specializations, search, lat, lng, sort, null, null)
+                    .items().stream().map(ClinicRanker.Ranked::clinic);
         }
+        return clinics.map(clinic -> toSummary(clinic, lat, lng));
+    }
 
+    private CursorPage<ClinicRanker.Ranked<ClinicSummaryView>> rankFilteredClinics(String city,
+            List<String> specializations, String search, Double lat, Double lng, ClinicSort sort,
+            ClinicPageCursor after, Integer limit) {
         // Normalize specialization filters to lower-case for matching
-        List<String> normalizedSpecs = specializations == null ? List.of()
-                : specializations.stream()
-                        .filter(spec -> spec != null && !spec.isBlank())
-                        .map(spec -> spec.toLowerCase())
-                        .collect(Collectors.toList());
-
-        // Filter by specialization matches (multi-select). Keep only clinics with >=1
-        // match when filters provided.
+        List<String> normalizedSpecs = ClinicSpecializationIndex.normalize(specializations);
+        ClinicRanker<ClinicSummaryView> ranker = clinicRankingService.ranker(sort, normalizedSpecs.size(), after, 0,
+                limit);
+        // Relevance here is match count then id, so distance only feeds the other sorts
+        boolean useDistance = sort != ClinicSort.RELEVANCE && lat != null && lng != null;
+
         if (!normalizedSpecs.isEmpty()) {
-            clinics = clinics.stream()
-                    .filter(clinic -> getMatchCount(clinic, normalizedSpecs) > 0)
-                    .sorted((a, b) -> Integer.compare(
-                            getMatchCount(b, normalizedSpecs),
-                            getMatchCount(a, normalizedSpecs)))
-                    .collect(Collectors.toList());
+            // Multi-select: the specialization index returns clinics with >=1 match
+            // together with their match counts
+            Set<String> searchMatches = search != null && !search.isEmpty()
+                    ? clinicSearchIndex.matchingIds(search)
+                    : null;
+            for (ClinicSpecializationIndex.Match match : clinicSpecializationIndex.rankByMatchCount(normalizedSpecs)) {
+                Clinic clinic = match.clinic();
+                if ((city == null || city.equalsIgnoreCase(clinic.getCity()))
+                        && (searchMatches == null || searchMatches.contains(clinic.getId()))) {
+                    ranker.offer(clinic, match.matchCount(), useDistance ? distance(clinic, lat, lng)
+                            : Double.POSITIVE_INFINITY);
+                }
+            }
+        } else {
+            // Text search: candidates come from the trigram index instead of a scan;
+            // otherwise start from the catalog snapshot
+            List<Clinic> clinics = (search != null && !search.isEmpty())
+                    ? clinicSearchIndex.search(search)
+                    : clinicCatalog.clinics();
+            for (Clinic clinic : clinics) {
+                if (city == null || city.equalsIgnoreCase(clinic.getCity())) {
+                    ranker.offer(clinic, 0, useDistance ? distance(clinic, lat, lng) : Double.POSITIVE_INFINITY);
+                }
+            }
         }
+        return ranker.page();
+    }
 
-        // Apply search filter if provided
-        if (search != null && !search.isEmpty()) {
-            String searchLower = search.toLowerCase();
-            clinics = clinics.stream()
-                    .filter(clinic -> clinic.getName().toLowerCase().contains(searchLower) ||
-                            (clinic.getAddress() != null && clinic.getAddress().toLowerCase().contains(searchLower)) ||
-                            (clinic.getCity() != null && clinic.getCity().toLowerCase().contains(searchLower)))
-                    .collect(Collectors.toList());
-        }
-
-        return clinics.stream()
-                .map(clinic -> {
-                    Double distance = null;
-                    Integer estimatedTime = null;
-                    if (lat != null && lng != null && clinic.getLatitude() != null && clinic.getLongitude() != null) {
-                        distance = calculateDistance(lat, lng, clinic.getLatitude(), clinic.getLongitude());
-
-                        double speed;
-                        if (distance < 5)
-                            speed = 20.0;
-                        else if (distance < 20)
-                            speed = 30.0;
-                        else
-                            speed = 40.0;
-                        estimatedTime = (int) Math.round(distance / speed * 60);
-                    }
-                    return new ClinicSummaryDTO(clinic, distance, estimatedTime);
-                })
-                .collect(Collectors.toList());
+    private static double distance(ClinicSummaryView clinic, double lat, double lng) {
+        if (clinic.getLatitude() == null || clinic.getLongitude() == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return GeoDistanceService.distanceKm(lat, lng, clinic.getLatitude(), clinic.getLongitude());
     }
 
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int EARTH_RADIUS = 6371; // Earth radius in kilometers
+    private ClinicSummaryDTO toSummary(ClinicSummaryView clinic, Double lat, Double lng) {
+        Double distance = null;
+        Integer estimatedTime = null;
+        if (lat != null && lng != null && clinic.getLatitude() != null && clinic.getLongitude() != null) {
+            distance = GeoDistanceService.distanceKm(lat, lng, clinic.getLatitude(), clinic.getLongitude());
+            estimatedTime = etaService.estimateMinutes(distance, clinic.getCity());
+        }
+        return new ClinicSummaryDTO(clinic, distance, estimatedTime);
+    }
 
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                        * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    /**
+     * Clinics ordered by distance using a MongoDB {@code $geoNear} aggregation on the
+     * 2dsphere {@code location} index. City, specialization and search filters plus
+     * paging all run inside the database, so only the requested page is read.
+     * When specializations are given, clinics are ordered by match count first and
+     * distance second, and clinics with no match are dropped. Clinic id breaks ties
+     * so {@code cursor} pages are stable.
+     */
+    public CursorPage<NearbyClinicDTO> getClinicsSortedByDistance(double lat, double lng, String city,
+            List<String> specializations, String search, Integer skip, Integer limit, String cursor) {
+        Criteria criteria = new Criteria();
+        List<Criteria> filters = new ArrayList<>();
+        if (city != null && !city.isEmpty()) {
+            filters.add(Criteria.where("city").regex("^" + Pattern.quote(city) + "$", "i"));
+        }
+        if (search != null && !search.isEmpty()) {
+            String pattern = Pattern.quote(search);
+            filters.add(new Criteria().orOperator(
+                    Criteria.where("name").regex(pattern, "i"),
+                    Criteria.where("address").regex(pattern, "i")));
+        }
+        if (!filters.isEmpty()) {
+            criteria.andOperator(filters.toArray(new Criteria[0]));
+        }
+        Document filter = new Query(criteria).getQueryObject();
 
-        return EARTH_RADIUS * c;
-    }
+        List<String> normalizedSpecs = ClinicSpecializationIndex.normalize(specializations);
+        ClinicPageCursor after = ClinicPageCursor.decode(cursor);
+
+        Document geoNear = new Document()
+                .append("near", new Document("type", "Point").append("coordinates", List.of(lng, lat)))
+                .append("distanceField", "distance")
+                .append("distanceMultiplier", 0.001)
+                .append("spherical", true)
+                .append("key", "location");
+        if (after != null && normalizedSpecs.isEmpty()) {
+            // Pure distance order: let the index skip everything closer than the cursor.
+            // A meter of slack absorbs km/m rounding; the keyset $match below is exact.
+            geoNear.append("minDistance", Math.max(0, after.distance() * 1000 - 1));
+        }
+
+        List<AggregationOperation> stages = new ArrayList<>();
+        // $geoNear must be the first stage; distanceMultiplier turns meters into km
+        stages.add(context -> new Document("$geoNear",
+                geoNear.append("query", context.getMappedObject(filter, Clinic.class))));
+
+        Document sort = new Document();
+        if (!normalizedSpecs.isEmpty()) {
+            stages.add(context -> new Document("$addFields", new Document("matchCount",
+                    new Document("$size", new Document("$filter", new Document()
+                            .append("input", new Document("$ifNull", List.of("$specializations", List.of())))
+                            .append("cond", new Document("$in", List.of(
+                                    new Document("$toLower", "$$this.specialization"),
+                                    normalizedSpecs))))))));
+            stages.add(Aggregation.match(Criteria.where("matchCount").gt(0)));
+            sort.append("matchCount", -1);
+        }
+        sort.append("distance", 1).append("_id", 1);
+
+        if (after != null) {
+            Object afterId = ObjectId.isValid(after.id()) ? new ObjectId(after.id()) : after.id();
+            List<Document> keyset = new ArrayList<>();
+            if (!normalizedSpecs.isEmpty()) {
+                keyset.add(new Document("matchCount", new Document("$lt", after.matchCount())));
+                keyset.add(new Document("matchCount", after.matchCount())
+                        .append("distance", new Document("$gt", after.distance())));
+                keyset.add(new Document("matchCount", after.matchCount())
+                        .append("distance", after.distance())
+                        .append("_id", new Document("$gt", afterId)));
+            } else {
+                keyset.add(new Document("distance", new Document("$gt", after.distance())));
+                keyset.add(new Document("distance", after.distance())
+                        .append("_id", new Document("$gt", afterId)));
+            }
+            stages.add(context -> new Document("$match", new Document("$or", keyset)));
+        }
+        // Re-sort by the full key; distance keeps clinics with equal counts nearest first
+        stages.add(context -> new Document("$sort", sort));
+
+        if (skip != null && skip > 0) {
+            stages.add(Aggregation.skip(skip.longValue()));
+        }
+        if (limit != null && limit >= 0) {
+            // One extra row tells us whether another page exists
+            stages.add(Aggregation.limit(limit + 1L));
+        }
 
-    private int getMatchCount(Clinic clinic, List<String> normalizedSpecs) {
-        if (normalizedSpecs == null || normalizedSpecs.isEmpty())
-            return 0;
+        List<Document> results = new ArrayList<>(mongoTemplate
+                .aggregate(Aggregation.newAggregation(stages), Clinic.class, Document.class)
+                .getMappedResults());
 
-        return (int) clinic.getSpecializations().stream()
-                .map(Specialization::getSpecialization)
-                .filter(spec -> spec != null && !spec.isBlank())
-                .map(String::toLowerCase)
-                .filter(normalizedSpecs::contains)
-                .count();
+        String nextCursor = null;
+        if (limit != null && limit >= 0 && results.size() > limit) {
+            results = results.subList(0, limit);
+            if (!results.isEmpty()) {
+                Document last = results.get(results.size() - 1);
+                Number matchCount = last.get("matchCount", Number.class);
+                nextCursor = new ClinicPageCursor(
+                        matchCount != null ? matchCount.intValue() : 0,
+                        last.get("distance", Number.class).doubleValue(),
+                        last.get("_id").toString()).encode();
+            }
+        }
+
+        List<NearbyClinicDTO> items = results.stream()
+                .map(doc -> {
+                    Clinic clinic = mongoTemplate.getConverter().read(Clinic.class, doc);
+                    double distance = doc.get("distance", Number.class).doubleValue();
+                    return new NearbyClinicDTO(clinic, distance, etaService.estimateMinutes(distance, clinic.getCity()));
+                })
+                .collect(Collectors.toList());
+        return new CursorPage<>(items, nextCursor);
     }
 
     public ClinicResponseDTO createClinic(ClinicRequestDTO request) {
@@ -123,6 +273,7 @@ public class ClinicService {
         clinic.setCity(request.getCity());
         clinic.setLatitude(request.getLatitude());
         clinic.setLongitude(request.getLongitude());
+        clinic.syncLocation();
         clinic.setPhone(request.getPhone());
         clinic.setWebsite(request.getWebsite());
         clinic.setTimings(request.getTimings());
@@ -149,22 +300,21 @@ public class ClinicService {
         clinic.setSpecializations(specializations);
 
         clinicRepository.save(clinic);
+        clinicCatalog.upsert(clinic);
         return new ClinicResponseDTO(clinic);
     }
 
     public ClinicResponseDTO getClinicById(String id) {
-        Clinic clinic = clinicRepository.findById(id)
+        // Clinic and doctors in one aggregation, cached briefly
+        return clinicDetailService.findById(id)
                 .orElseThrow(() -> new RuntimeException("Clinic not found"));
-
-        ClinicResponseDTO response = new ClinicResponseDTO(clinic);
-        // Manually fetch and set doctors
-        response.setDoctors(doctorRepository.findByClinicId(id));
-
-        return response;
     }
 
     public ClinicResponseDTO getClinicByOwnerId(String ownerId) {
-        Clinic clinic = clinicRepository.findByOwnerId(ownerId);
+        Clinic clinic = clinicCatalog.clinics().stream()
+                .filter(c -> ownerId != null && ownerId.equals(c.getOwnerId()))
+                .findFirst()
+                .orElse(null);
         if (clinic == null) {
             throw new RuntimeException("No clinic found for this owner");
         }
@@ -0,0 +1,32 @@
+package com.hospitalfinder.backend.service;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Orders supported by the clinic list endpoints ({@code sort} parameter).
+ */
+public enum ClinicSort {
+    /** Specialization match count, then distance. The default. */
+    RELEVANCE,
+    /** Nearest first. */
+    DISTANCE,
+    /** Highest rated first. */
+    RATING,
+    /** Most reviewed first. */
+    REVIEWS,
+    /** Weighted blend of match count, distance, rating, reviews and doctor availability. */
+    BEST;
+
+    public static ClinicSort parse(String value) {
+        if (value == null || value.isBlank()) {
+            return RELEVANCE;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sort '" + value + "', expected one of "
+                    + Arrays.stream(values()).map(s -> s.name().toLowerCase()).collect(Collectors.joining(", ")));
+        }
+    }
+}
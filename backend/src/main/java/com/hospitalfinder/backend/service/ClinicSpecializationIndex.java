@@ -0,0 +1,206 @@
+package com.hospitalfinder.backend.service;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.hospitalfinder.backend.entity.Clinic;
+import com.hospitalfinder.backend.entity.Specialization;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Inverted index from canonical (lower-cased, trimmed) specialization name to a
+ * bitset of clinic ordinals.
+ *
+ * Multi-select specialization filters become bitset unions, and a clinic's match
+ * count is the number of selected specialization bitsets it appears in, so
+ * ranking by match count is a single pass with no per-clinic string work. Loaded
+ * lazily from the {@link ClinicCatalog} and kept in sync with it.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClinicSpecializationIndex implements ClinicCatalogListener {
+
+    private final ClinicCatalog clinicCatalog;
+
+    // Guarded by `this`; readers take the lock too since BitSet is not thread-safe
+    private final List<Clinic> clinicsByOrdinal = new ArrayList<>();
+    private final Map<String, Integer> ordinalById = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final Map<String, BitSet> clinicsBySpec = new HashMap<>();
+    private boolean loaded = false;
+
+    public record Match(Clinic clinic, int matchCount) {
+    }
+
+    /**
+     * Lower-case, trimmed, de-duplicated specialization filters. Blank entries are dropped.
+     */
+    public static List<String> normalize(Collection<String> specializations) {
+        if (specializations == null || specializations.isEmpty()) {
+            return List.of();
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String spec : specializations) {
+            String canonical = canonical(spec);
+            if (canonical != null) {
+                normalized.add(canonical);
+            }
+        }
+        return new ArrayList<>(normalized);
+    }
+
+    /**
+     * Clinics offering at least one of the given specializations, ordered by match
+     * count (highest first). Clinics with equal counts keep index order.
+     */
+    public synchronized List<Match> rankByMatchCount(Collection<String> specializations) {
+        ensureLoaded();
+        List<String> specs = normalize(specializations);
+        if (specs.isEmpty()) {
+            return List.of();
+        }
+
+        // Popcount per clinic across the selected specialization bitsets
+        int[] counts = new int[clinicsByOrdinal.size()];
+        BitSet any = new BitSet(counts.length);
+        for (String spec : specs) {
+            BitSet clinics = clinicsBySpec.get(spec);
+            if (clinics == null) {
+                continue;
+            }
+            any.or(clinics);
+            for (int i = clinics.nextSetBit(0); i >= 0; i = clinics.nextSetBit(i + 1)) {
+                counts[i]++;
+            }
+        }
+
+        // Bucket by count: counts are bounded by the number of selected specs
+        List<List<Match>> buckets = new ArrayList<>(specs.size() + 1);
+        for (int i = 0; i <= specs.size(); i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (int i = any.nextSetBit(0); i >= 0; i = any.nextSetBit(i + 1)) {
+            buckets.get(counts[i]).add(new Match(clinicsByOrdinal.get(i), counts[i]));
+        }
+
+        List<Match> result = new ArrayList<>(any.cardinality());
+        for (int count = specs.size(); count > 0; count--) {
+            result.addAll(buckets.get(count));
+        }
+        return result;
+    }
+
+    /**
+     * Number of the given (already normalized) specializations a clinic offers.
+     */
+    public synchronized int matchCount(String clinicId, List<String> normalizedSpecs) {
+        ensureLoaded();
+        Integer ordinal = ordinalById.get(clinicId);
+        if (ordinal == null || normalizedSpecs == null) {
+            return 0;
+        }
+        int count = 0;
+        for (String spec : normalizedSpecs) {
+            BitSet clinics = clinicsBySpec.get(spec);
+            if (clinics != null && clinics.get(ordinal)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Re-index one clinic from the current catalog snapshot.
+     */
+    @Override
+    public synchronized void clinicChanged(String clinicId) {
+        if (clinicId == null || !loaded) {
+            // Not loaded yet: the initial load reads the latest snapshot
+            return;
+        }
+        ClinicCatalog.Snapshot snapshot = clinicCatalog.current();
+        if (snapshot == null) {
+            invalidate();
+            return;
+        }
+        removeInternal(clinicId);
+        snapshot.findById(clinicId).ifPresent(this::addInternal);
+    }
+
+    /**
+     * Drop everything and reload from the catalog on next use.
+     */
+    @Override
+    public synchronized void invalidate() {
+        loaded = false;
+        clinicsByOrdinal.clear();
+        ordinalById.clear();
+        freeOrdinals.clear();
+        clinicsBySpec.clear();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        for (Clinic clinic : clinicCatalog.clinics()) {
+            if (clinic.getId() != null) {
+                addInternal(clinic);
+            }
+        }
+        loaded = true;
+        System.out.println("✓ Clinic specialization index loaded: " + ordinalById.size() + " clinics, "
+                + clinicsBySpec.size() + " specializations");
+    }
+
+    private void addInternal(Clinic clinic) {
+        int ordinal;
+        if (!freeOrdinals.isEmpty()) {
+            ordinal = freeOrdinals.pop();
+            clinicsByOrdinal.set(ordinal, clinic);
+        } else {
+            ordinal = clinicsByOrdinal.size();
+            clinicsByOrdinal.add(clinic);
+        }
+        ordinalById.put(clinic.getId(), ordinal);
+
+        if (clinic.getSpecializations() == null) {
+            return;
+        }
+        for (Specialization specialization : clinic.getSpecializations()) {
+            String canonical = specialization != null ? canonical(specialization.getSpecialization()) : null;
+            if (canonical != null) {
+                clinicsBySpec.computeIfAbsent(canonical, k -> new BitSet()).set(ordinal);
+            }
+        }
+    }
+
+    private void removeInternal(String clinicId) {
+        Integer ordinal = ordinalById.remove(clinicId);
+        if (ordinal == null) {
+            return;
+        }
+        clinicsByOrdinal.set(ordinal, null);
+        clinicsBySpec.values().forEach(clinics -> clinics.clear(ordinal));
+        clinicsBySpec.values().removeIf(BitSet::isEmpty);
+        freeOrdinals.push(ordinal);
+    }
+
+    private static String canonical(String specialization) {
+        if (specialization == null || specialization.isBlank()) {
+            return null;
+        }
+        return specialization.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,83 @@
+package com.hospitalfinder.backend.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import com.hospitalfinder.backend.dto.AppointmentStatsDTO;
+import com.hospitalfinder.backend.entity.User;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Dashboard appointment statistics.
+ *
+ * Counts by status, day and specialization and distinct patients all come from
+ * the rollups ({@link AppointmentRollupService}) in one {@code $facet} aggregate,
+ * so a dashboard costs one round trip over O(days x doctors) day rows plus the
+ * patient rows in scope, rather than O(appointments).
+ */
+@Service
+@RequiredArgsConstructor
+public class DashboardStatsService {
+
+    public static final int MAX_DAYS = 365;
+
+    private final MongoTemplate mongoTemplate;
+    private final AppointmentRollupService appointmentRollupService;
+
+    /**
+     * Statistics over every appointment, plus the number of users.
+     */
+    public record AllStats(AppointmentStatsDTO appointments, long users) {
+    }
+
+    public AllStats forAll(int days) {
+        AppointmentRollupService.Summary summary = summary(new Criteria(), days, User.class);
+        return new AllStats(stats(summary, days),
+                summary.collectionCounts().getOrDefault(mongoTemplate.getCollectionName(User.class), 0L));
+    }
+
+    public AppointmentStatsDTO forClinic(String clinicId, int days) {
+        return stats(summary(Criteria.where("clinicId").is(clinicId), days), days);
+    }
+
+    public AppointmentStatsDTO forDoctor(String doctorId, int days) {
+        return stats(summary(Criteria.where("doctorId").is(doctorId), days), days);
+    }
+
+    private AppointmentRollupService.Summary summary(Criteria scope, int days, Class<?>... countCollections) {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("days must be between 1 and " + MAX_DAYS);
+        }
+        LocalDate today = LocalDate.now();
+        return appointmentRollupService.summary(scope, today.minusDays(days - 1L), today, countCollections);
+    }
+
+    private AppointmentStatsDTO stats(AppointmentRollupService.Summary summary, int days) {
+        LocalDate today = LocalDate.now();
+        LocalDate first = today.minusDays(days - 1L);
+
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        byStatus.put(AppointmentBookingService.BOOKED, summary.booked());
+        byStatus.put(AppointmentRollupService.CANCELLED, summary.cancelled());
+        long other = summary.total() - summary.booked() - summary.cancelled();
+        if (other > 0) {
+            byStatus.put("OTHER", other);
+        }
+
+        List<AppointmentStatsDTO.DayCount> byDay = new ArrayList<>(days);
+        for (LocalDate date = first; !date.isAfter(today); date = date.plusDays(1)) {
+            byDay.add(new AppointmentStatsDTO.DayCount(date, summary.perDay().getOrDefault(date, 0L)));
+        }
+
+        return new AppointmentStatsDTO(summary.total(), byStatus, byDay, summary.bySpecialization(),
+                summary.distinctPatients());
+    }
+}
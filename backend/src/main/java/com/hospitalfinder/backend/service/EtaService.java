@@ -0,0 +1,107 @@
+package com.hospitalfinder.backend.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.hospitalfinder.backend.config.EtaProperties;
+
+/**
+ * Estimated travel minutes to a clinic from the straight-line distance.
+ *
+ * Each trip is driven band by band (e.g. the first 5 km at 20 km/h, the next 15
+ * at 30 km/h, the rest at 40 km/h), so the estimate grows with distance, and
+ * every band speed is scaled by the clinic city's speed factor. The minutes for
+ * every 100 m step up to {@code maxTableKm} are computed once per speed profile
+ * into a {@code short[]}, so a request only does an array lookup per clinic.
+ */
+@Service
+public class EtaService {
+
+    private static final int STEPS_PER_KM = 10;
+
+    private final Profile defaultProfile;
+    private final Map<String, Profile> profilesByCity = new HashMap<>();
+
+    // Minutes by distance step for one speed profile
+    private record Profile(short[] minutes, double tailSpeedKmh) {
+    }
+
+    public EtaService(EtaProperties properties) {
+        if (properties.getBands() == null || properties.getBands().isEmpty()) {
+            throw new IllegalStateException("clinics.eta.bands must define at least one band");
+        }
+        int steps = (int) Math.ceil(properties.getMaxTableKm() * STEPS_PER_KM);
+        this.defaultProfile = buildProfile(properties.getBands(), 1.0, steps);
+        properties.getCitySpeedFactors().forEach((city, factor) -> {
+            if (city != null && factor != null && factor > 0) {
+                profilesByCity.put(cityKey(city), buildProfile(properties.getBands(), factor, steps));
+            }
+        });
+        System.out.println("✓ ETA tables built: " + (profilesByCity.size() + 1) + " profiles x "
+                + (steps + 1) + " steps");
+    }
+
+    /**
+     * Minutes to travel {@code distanceKm} to a clinic in {@code city}.
+     */
+    public int estimateMinutes(double distanceKm, String city) {
+        Profile profile = city != null ? profilesByCity.getOrDefault(cityKey(city), defaultProfile)
+                : defaultProfile;
+        return lookup(profile, distanceKm);
+    }
+
+    // Configured and clinic city names are matched trimmed and case-insensitively
+    private static String cityKey(String city) {
+        return city.trim().toLowerCase();
+    }
+
+    public int estimateMinutes(double distanceKm) {
+        return lookup(defaultProfile, distanceKm);
+    }
+
+    private static int lookup(Profile profile, double distanceKm) {
+        if (!(distanceKm > 0)) {
+            return 0;
+        }
+        short[] minutes = profile.minutes();
+        int step = (int) Math.round(distanceKm * STEPS_PER_KM);
+        if (step < minutes.length) {
+            return minutes[step];
+        }
+        // Past the table: continue at the last band's speed
+        int last = minutes.length - 1;
+        double extraKm = distanceKm - (double) last / STEPS_PER_KM;
+        return (int) Math.round(minutes[last] + extraKm / profile.tailSpeedKmh() * 60);
+    }
+
+    private static Profile buildProfile(List<EtaProperties.Band> bands, double speedFactor, int steps) {
+        short[] minutes = new short[steps + 1];
+        for (int step = 0; step <= steps; step++) {
+            double remaining = (double) step / STEPS_PER_KM;
+            double hours = 0;
+            double bandStart = 0;
+            for (EtaProperties.Band band : bands) {
+                double bandLength = band.getUpToKm() != null
+                        ? Math.max(0, band.getUpToKm() - bandStart)
+                        : Double.POSITIVE_INFINITY;
+                double driven = Math.min(remaining, bandLength);
+                hours += driven / (band.getSpeedKmh() * speedFactor);
+                remaining -= driven;
+                if (remaining <= 0 || band.getUpToKm() == null) {
+                    break;
+                }
+                bandStart = band.getUpToKm();
+            }
+            if (remaining > 0) {
+                // Bands ran out: finish at the last band's speed
+                hours += remaining / (bands.get(bands.size() - 1).getSpeedKmh() * speedFactor);
+            }
+            minutes[step] = (short) Math.min(Short.MAX_VALUE, Math.round(hours * 60));
+        }
+        double tailSpeed = bands.get(bands.size() - 1).getSpeedKmh() * speedFactor;
+        return new Profile(minutes, tailSpeed);
+    }
+}
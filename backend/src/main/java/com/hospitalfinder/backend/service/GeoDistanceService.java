@@ -0,0 +1,139 @@
+package com.hospitalfinder.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.hospitalfinder.backend.entity.Clinic;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Great-circle distances from a point to every clinic in the catalog.
+ *
+ * Clinic coordinates are kept as primitive arrays (struct of arrays) of
+ * precomputed unit vectors on the sphere, so the distance to every clinic is a
+ * branch-free loop of subtractions and multiplies (the chord length) that the JIT
+ * can vectorize, followed by one {@code asin} per clinic to turn chords into
+ * kilometers. The arrays are rebuilt whenever the catalog snapshot version
+ * changes. Radius and nearest-K queries stay on {@link ClinicGeoIndex}, whose
+ * grid only looks at nearby clinics.
+ */
+@Service
+@RequiredArgsConstructor
+public class GeoDistanceService {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    private final ClinicCatalog clinicCatalog;
+
+    private volatile Coordinates coordinates;
+
+    /**
+     * Clinics with coordinates and their distances from a point, index-aligned.
+     */
+    public record Distances(Clinic[] clinics, double[] km) {
+    }
+
+    // Clinics with coordinates from one catalog snapshot
+    private record Coordinates(long version, Clinic[] clinics, double[] x, double[] y, double[] z) {
+    }
+
+    /**
+     * Great-circle (haversine) distance in kilometers.
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                        * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return EARTH_RADIUS_KM * c;
+    }
+
+    /**
+     * Distance from the point to every clinic that has coordinates.
+     */
+    public Distances distancesFrom(double lat, double lng) {
+        Coordinates c = coordinates();
+        double[] km = new double[c.clinics().length];
+        chordsSquared(c, lat, lng, km);
+        for (int i = 0; i < km.length; i++) {
+            km[i] = chordSquaredToKm(km[i]);
+        }
+        return new Distances(c.clinics(), km);
+    }
+
+    /**
+     * Every clinic with coordinates, closest first.
+     */
+    public List<ClinicGeoIndex.Hit> sortedByDistance(double lat, double lng) {
+        Distances distances = distancesFrom(lat, lng);
+        List<ClinicGeoIndex.Hit> hits = new ArrayList<>(distances.km().length);
+        for (int i = 0; i < distances.km().length; i++) {
+            hits.add(new ClinicGeoIndex.Hit(distances.clinics()[i], distances.km()[i]));
+        }
+        hits.sort(Comparator.comparingDouble(ClinicGeoIndex.Hit::distanceKm));
+        return hits;
+    }
+
+    /**
+     * Squared chord length between the point and each clinic on the unit sphere.
+     * Kept as a plain loop over primitive arrays so C2 can vectorize it.
+     */
+    private static void chordsSquared(Coordinates c, double lat, double lng, double[] out) {
+        double qLat = Math.toRadians(lat);
+        double qLng = Math.toRadians(lng);
+        double qx = Math.cos(qLat) * Math.cos(qLng);
+        double qy = Math.cos(qLat) * Math.sin(qLng);
+        double qz = Math.sin(qLat);
+
+        double[] xs = c.x();
+        double[] ys = c.y();
+        double[] zs = c.z();
+        for (int i = 0; i < out.length; i++) {
+            double dx = xs[i] - qx;
+            double dy = ys[i] - qy;
+            double dz = zs[i] - qz;
+            out[i] = dx * dx + dy * dy + dz * dz;
+        }
+    }
+
+    private static double chordSquaredToKm(double chordSquared) {
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(chordSquared) / 2));
+    }
+
+    private Coordinates coordinates() {
+        ClinicCatalog.Snapshot snapshot = clinicCatalog.snapshot();
+        Coordinates current = coordinates;
+        if (current != null && current.version() == snapshot.version()) {
+            return current;
+        }
+
+        List<Clinic> located = new ArrayList<>(snapshot.clinics().size());
+        for (Clinic clinic : snapshot.clinics()) {
+            if (clinic.getLatitude() != null && clinic.getLongitude() != null) {
+                located.add(clinic);
+            }
+        }
+        int n = located.size();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double[] z = new double[n];
+        for (int i = 0; i < n; i++) {
+            Clinic clinic = located.get(i);
+            double latRad = Math.toRadians(clinic.getLatitude());
+            double lngRad = Math.toRadians(clinic.getLongitude());
+            double cosLat = Math.cos(latRad);
+            x[i] = cosLat * Math.cos(lngRad);
+            y[i] = cosLat * Math.sin(lngRad);
+            z[i] = Math.sin(latRad);
+        }
+        current = new Coordinates(snapshot.version(), located.toArray(new Clinic[0]), x, y, z);
+        coordinates = current;
+        return current;
+    }
+}
@@ -0,0 +1,280 @@
+package com.hospitalfinder.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospitalfinder.backend.entity.IdempotencyRecord;
+
+/**
+ * {@code Idempotency-Key} support for non-idempotent POST endpoints.
+ *
+ * The first request with a key claims an {@link IdempotencyRecord} (unique
+ * {@code _id}, so exactly one claim wins), runs, and stores its response with a
+ * fingerprint of the request body. Retries with the same key and body get the
+ * stored response back without running anything; the same key with a different
+ * body is rejected with 422. A retry that arrives while the first execution is
+ * still running waits for it: on the same instance through an in-memory future,
+ * across instances by polling the record. Claims carry a lease, so a key left
+ * behind by a crashed instance can be taken over once it lapses. The lease is
+ * not extended while the action runs, so it must outlast the slowest action;
+ * one that overruns it may run twice and its response is not stored. 5xx
+ * responses and exceptions are not stored, so the client can retry them for real.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+    private static final String COMPLETED = "COMPLETED";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_MILLIS = 100;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Duration wait;
+
+    // Executions running on this instance, so local duplicates wait instead of polling
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    private record Flight(String fingerprint, CompletableFuture<Stored> result) {
+    }
+
+    private record Stored(int status, String contentType, String body) {
+    }
+
+    public IdempotencyService(MongoTemplate mongoTemplate, ObjectMapper objectMapper,
+            @Value("${appointments.idempotency.ttl:24h}") Duration ttl,
+            @Value("${appointments.idempotency.lease:30s}") Duration lease,
+            @Value("${appointments.idempotency.wait:10s}") Duration wait) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.wait = wait;
+    }
+
+    public static List<Index> indexes() {
+        return List.of(new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO));
+    }
+
+    /**
+     * Run {@code action} at most once per {@code scope} and key. Without a key the
+     * action just runs.
+     */
+    public ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = scope + ":" + key.trim();
+        String fingerprint = fingerprint(request);
+
+        Flight flight = new Flight(fingerprint, new CompletableFuture<>());
+        Flight first = inFlight.putIfAbsent(id, flight);
+        if (first != null) {
+            if (!first.fingerprint().equals(fingerprint)) {
+                return mismatch();
+            }
+            return replay(await(first.result()));
+        }
+
+        try {
+            return run(id, fingerprint, flight, action);
+        } catch (RuntimeException e) {
+            flight.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, flight);
+        }
+    }
+
+    private ResponseEntity<?> run(String id, String fingerprint, Flight flight, Supplier<ResponseEntity<?>> action) {
+        long deadline = System.nanoTime() + wait.toNanos();
+        Instant lockedUntil;
+        while (true) {
+            lockedUntil = now().plus(lease);
+            IdempotencyRecord existing = claim(id, fingerprint, lockedUntil);
+            if (existing == null) {
+                break;
+            }
+            if (!fingerprint.equals(existing.getFingerprint())) {
+                return complete(flight, mismatch());
+            }
+            if (COMPLETED.equals(existing.getStatus())) {
+                Stored stored = new Stored(existing.getResponseStatus(), existing.getResponseContentType(),
+                        existing.getResponseBody());
+                flight.result().complete(stored);
+                return replay(stored);
+            }
+            // Running on another instance
+            if (System.nanoTime() > deadline) {
+                return complete(flight, inProgress());
+            }
+            sleep();
+        }
+
+        Query mine = new Query(Criteria.where("_id").is(id).and("lockedUntil").is(lockedUntil));
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            mongoTemplate.remove(mine, IdempotencyRecord.class);
+            throw e;
+        }
+
+        Stored stored = store(response);
+        if (stored.status() >= 500) {
+            mongoTemplate.remove(mine, IdempotencyRecord.class);
+        } else {
+            mongoTemplate.updateFirst(mine, new Update()
+                    .set("status", COMPLETED)
+                    .set("responseStatus", stored.status())
+                    .set("responseContentType", stored.contentType())
+                    .set("responseBody", stored.body())
+                    .set("expiresAt", now().plus(ttl))
+                    .unset("lockedUntil"), IdempotencyRecord.class);
+        }
+        flight.result().complete(stored);
+        return response;
+    }
+
+    /**
+     * Claim the key for this execution. Returns null if claimed (a new key, or an
+     * abandoned claim for the same request whose lease ran out), otherwise the
+     * record that holds it.
+     */
+    private IdempotencyRecord claim(String id, String fingerprint, Instant lockedUntil) {
+        Instant now = now();
+        Query unclaimed = new Query(Criteria.where("_id").is(id)
+                .and("fingerprint").is(fingerprint)
+                .and("status").is(IN_PROGRESS)
+                .and("lockedUntil").lte(now));
+        Update claim = new Update()
+                .set("status", IN_PROGRESS)
+                .set("lockedUntil", lockedUntil)
+                .set("expiresAt", now.plus(ttl));
+        try {
+            // Inserts when the key is new: _id and fingerprint come from the query
+            mongoTemplate.upsert(unclaimed, claim, IdempotencyRecord.class);
+            return null;
+        } catch (DuplicateKeyException e) {
+            IdempotencyRecord existing = mongoTemplate.findById(id, IdempotencyRecord.class);
+            if (existing == null) {
+                // Expired in between; claim again
+                return claim(id, fingerprint, lockedUntil);
+            }
+            return existing;
+        }
+    }
+
+    private Stored store(ResponseEntity<?> response) {
+        Object body = response.getBody();
+        if (body == null) {
+            return new Stored(response.getStatusCode().value(), null, null);
+        }
+        if (body instanceof String text) {
+            return new Stored(response.getStatusCode().value(), MediaType.TEXT_PLAIN_VALUE, text);
+        }
+        try {
+            return new Stored(response.getStatusCode().value(), MediaType.APPLICATION_JSON_VALUE,
+                    objectMapper.writeValueAsString(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store response for replay", e);
+        }
+    }
+
+    private static ResponseEntity<?> replay(Stored stored) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(stored.status()).header(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.contentType(MediaType.parseMediaType(stored.contentType()));
+        }
+        return response.body(stored.body());
+    }
+
+    private Stored await(CompletableFuture<Stored> result) {
+        try {
+            return result.get(wait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return store(inProgress());
+        } catch (ExecutionException e) {
+            // The first execution failed and stored nothing; so does this one
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the original request");
+        }
+    }
+
+    private ResponseEntity<?> complete(Flight flight, ResponseEntity<?> response) {
+        flight.result().complete(store(response));
+        return response;
+    }
+
+    private static ResponseEntity<?> mismatch() {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(HEADER + " was already used with a different request");
+    }
+
+    private static ResponseEntity<?> inProgress() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("A request with this " + HEADER + " is still being processed; retry shortly");
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] body = objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Mongo stores millisecond dates, so lease values must round-trip exactly
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(POLL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the original request");
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.hospitalfinder.backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Writes a stream of DTOs as newline-delimited JSON, one document per line.
+ *
+ * The source stream is opened on the response thread and consumed one element
+ * at a time, so a Mongo cursor behind it is read batch by batch and heap use does
+ * not grow with the result size. Output is flushed after the first line and then
+ * every {@link #FLUSH_EVERY} lines so clients see documents straight away.
+ */
+@Component
+@RequiredArgsConstructor
+public class NdjsonStreamer {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int FLUSH_EVERY = 100;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * True if the Accept header asks for NDJSON.
+     */
+    public static boolean accepts(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(type -> type.getQualityValue() > 0
+                            && type.equalsTypeAndSubtype(APPLICATION_NDJSON));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * 200 response streaming the supplied items. The supplier is called (and the
+     * stream closed) on the thread that writes the response body.
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(Supplier<Stream<T>> source) {
+        StreamingResponseBody body = out -> write(source, out);
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private <T> void write(Supplier<Stream<T>> source, OutputStream out) throws IOException {
+        try (Stream<T> items = source.get()) {
+            Iterator<T> iterator = items.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+                if (++written == 1 || written % FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.hospitalfinder.backend.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.hospitalfinder.backend.entity.Clinic;
+
+/**
+ * Keeps the {@code k} closest clinics seen so far in a fixed-size max-heap.
+ *
+ * Each clinic's distance is computed once by the caller (or by {@link #nearest})
+ * and returned with the result, so callers never have to recompute it.
+ */
+public class NearestClinicSelector {
+
+    private static final Comparator<ClinicGeoIndex.Hit> FARTHEST_FIRST = Comparator
+            .comparingDouble(ClinicGeoIndex.Hit::distanceKm).reversed();
+
+    private final int k;
+    private final PriorityQueue<ClinicGeoIndex.Hit> heap;
+
+    public NearestClinicSelector(int k) {
+        this.k = Math.max(0, k);
+        this.heap = new PriorityQueue<>(this.k + 1, FARTHEST_FIRST);
+    }
+
+    /**
+     * Top {@code k} clinics closest to the given point, closest first. Clinics
+     * without coordinates rank last with an infinite distance.
+     */
+    public static List<ClinicGeoIndex.Hit> nearest(Collection<Clinic> clinics, double lat, double lng, int k) {
+        NearestClinicSelector selector = new NearestClinicSelector(k);
+        for (Clinic clinic : clinics) {
+            double distance = clinic.getLatitude() != null && clinic.getLongitude() != null
+                    ? GeoDistanceService.distanceKm(lat, lng, clinic.getLatitude(), clinic.getLongitude())
+                    : Double.POSITIVE_INFINITY;
+            selector.offer(clinic, distance);
+        }
+        return selector.result();
+    }
+
+    public void offer(Clinic clinic, double distanceKm) {
+        if (k == 0) {
+            return;
+        }
+        if (heap.size() < k) {
+            heap.add(new ClinicGeoIndex.Hit(clinic, distanceKm));
+        } else if (distanceKm < heap.peek().distanceKm()) {
+            heap.poll();
+            heap.add(new ClinicGeoIndex.Hit(clinic, distanceKm));
+        }
+    }
+
+    public boolean isFull() {
+        return heap.size() == k;
+    }
+
+    /**
+     * Distance of the farthest clinic currently kept; only meaningful once full.
+     */
+    public double worstDistanceKm() {
+        return heap.isEmpty() ? Double.POSITIVE_INFINITY : heap.peek().distanceKm();
+    }
+
+    /**
+     * Selected clinics, closest first.
+     */
+    public List<ClinicGeoIndex.Hit> result() {
+        List<ClinicGeoIndex.Hit> result = new ArrayList<>(heap);
+        result.sort(Comparator.comparingDouble(ClinicGeoIndex.Hit::distanceKm));
+        return result;
+    }
+}
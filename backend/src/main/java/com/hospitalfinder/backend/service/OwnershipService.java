@@ -16,16 +16,16 @@ public class OwnershipService {
     private final ClinicRepository clinicRepository;
 
     /**
-     * Check if a user owns a specific clinic
+     * Check if a user owns a specific clinic. Reads the database rather than the
+     * clinic catalog, which may lag (or, without a change stream, never see)
+     * an ownership change made outside this instance.
      */
     public boolean isOwner(String userId, String clinicId) {
         if (userId == null || clinicId == null) {
             return false;
         }
 
-        return clinicRepository.findById(clinicId)
-                .map(clinic -> userId.equals(clinic.getOwnerId()))
-                .orElse(false);
+        return clinicRepository.existsByIdAndOwnerId(clinicId, userId);
     }
 
     /**
@@ -53,8 +53,7 @@ public class OwnershipService {
             return null;
         }
 
-        return clinicRepository.findAll().stream()
-                .filter(clinic -> userId.equals(clinic.getOwnerId()))
+        return clinicRepository.findByOwnerIdForCatalog(userId).stream()
                 .findFirst()
                 .orElse(null);
     }
@@ -0,0 +1,278 @@
+package com.hospitalfinder.backend.service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.hospitalfinder.backend.entity.Appointment;
+import com.hospitalfinder.backend.repository.AppointmentRepository;
+
+/**
+ * Free 30-minute appointment slots per doctor and day.
+ *
+ * A day has 48 half-hour slots, so a doctor's booked slots for one day fit in a
+ * single {@code long} (bit {@code i} is the slot starting {@code i * 30} minutes
+ * after midnight). Opening hours are a second bitmap per weekday, so the free
+ * slots are {@code open & ~booked}, and slot labels are precomputed. A day's
+ * bitmap is loaded from the appointments collection on first use and then kept
+ * current by {@link AppointmentBookingService} on every booking, reschedule and
+ * cancellation; entries also expire after {@code appointments.availability.cache-ttl}
+ * to pick up writes made outside the application.
+ */
+@Service
+public class SlotAvailabilityService {
+
+    public static final int SLOT_MINUTES = 30;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private static final int MAX_CACHED_DAYS = 100_000;
+    private static final String[] LABELS = new String[SLOTS_PER_DAY];
+    // Mornings 9:00-13:00, afternoons 14:00-20:00 (18:00 on Sundays); times are slot starts
+    private static final long WEEKDAY_HOURS = range(9, 0, 13, 0) | range(14, 0, 20, 0);
+    private static final long SUNDAY_HOURS = range(9, 0, 13, 0) | range(14, 0, 18, 0);
+
+    static {
+        for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+            int minutes = slot * SLOT_MINUTES;
+            LABELS[slot] = String.format("%02d:%02d", minutes / 60, minutes % 60);
+        }
+    }
+
+    private final AppointmentRepository appointmentRepository;
+    private final long ttlMillis;
+
+    private final Map<DoctorDay, Day> days = new ConcurrentHashMap<>();
+    // Bumped by every change so a load that raced a booking is not cached
+    private final AtomicLong changes = new AtomicLong();
+
+    private record DoctorDay(String doctorId, LocalDate date) {
+    }
+
+    private record Day(long booked, long loadedAt) {
+    }
+
+    public SlotAvailabilityService(AppointmentRepository appointmentRepository,
+            @Value("${appointments.availability.cache-ttl:10m}") Duration ttl) {
+        this.appointmentRepository = appointmentRepository;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /**
+     * Bitmap of slots the clinic is open for on that date.
+     */
+    public static long openingHours(LocalDate date) {
+        return date.getDayOfWeek() == DayOfWeek.SUNDAY ? SUNDAY_HOURS : WEEKDAY_HOURS;
+    }
+
+    /**
+     * Slot index for a time, or -1 if it is not on a slot boundary.
+     */
+    public static int slotOf(LocalTime time) {
+        int minutes = time.getHour() * 60 + time.getMinute();
+        if (minutes % SLOT_MINUTES != 0 || time.getSecond() != 0 || time.getNano() != 0) {
+            return -1;
+        }
+        return minutes / SLOT_MINUTES;
+    }
+
+    /**
+     * "HH:mm" start time of a slot.
+     */
+    public static String label(int slot) {
+        return LABELS[slot];
+    }
+
+    /**
+     * Bitmap of the doctor's booked slots on that date.
+     */
+    public long bookedSlots(String doctorId, LocalDate date) {
+        DoctorDay key = new DoctorDay(doctorId, date);
+        long now = System.currentTimeMillis();
+        Day day = days.get(key);
+        if (day != null && now - day.loadedAt() < ttlMillis) {
+            return day.booked();
+        }
+
+        long changesBefore = changes.get();
+        long booked = 0;
+        List<Appointment> appointments = appointmentRepository.findByDoctorAndDate(doctorId, date.atStartOfDay(),
+                date.plusDays(1).atStartOfDay());
+        for (Appointment appointment : appointments) {
+            if (AppointmentBookingService.BOOKED.equalsIgnoreCase(appointment.getStatus())) {
+                booked |= bit(appointment.getAppointmentTime());
+            }
+        }
+        store(key, booked, changesBefore, now);
+        return booked;
+    }
+
+    /**
+     * Booked-slot bitmaps for several doctors over a date range (inclusive), by
+     * doctor id and date. Days not in the cache are read with one range query
+     * over all the doctors that need it.
+     */
+    public Map<String, Map<LocalDate, Long>> bookedSlots(Collection<String> doctorIds, LocalDate from, LocalDate to) {
+        long now = System.currentTimeMillis();
+        Map<String, Map<LocalDate, Long>> result = new LinkedHashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String doctorId : doctorIds) {
+            Map<LocalDate, Long> byDate = new TreeMap<>();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                Day day = days.get(new DoctorDay(doctorId, date));
+                if (day == null || now - day.loadedAt() >= ttlMillis) {
+                    missing.add(doctorId);
+                    break;
+                }
+                byDate.put(date, day.booked());
+            }
+            result.put(doctorId, byDate);
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long changesBefore = changes.get();
+        Map<String, Map<LocalDate, Long>> loaded = new HashMap<>();
+        for (String doctorId : missing) {
+            Map<LocalDate, Long> byDate = new TreeMap<>();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                byDate.put(date, 0L);
+            }
+            loaded.put(doctorId, byDate);
+        }
+        for (Appointment appointment : appointmentRepository.findBookedByDoctorIdsBetween(missing,
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+            Map<LocalDate, Long> byDate = loaded.get(appointment.getDoctorId());
+            if (byDate != null && appointment.getAppointmentTime() != null) {
+                byDate.merge(appointment.getAppointmentTime().toLocalDate(), bit(appointment.getAppointmentTime()),
+                        (a, b) -> a | b);
+            }
+        }
+        loaded.forEach((doctorId, byDate) -> {
+            byDate.forEach((date, booked) -> store(new DoctorDay(doctorId, date), booked, changesBefore, now));
+            result.put(doctorId, byDate);
+        });
+        return result;
+    }
+
+    /**
+     * Bitmap of open, unbooked slots on that date that start after {@code now}.
+     */
+    public long freeSlots(String doctorId, LocalDate date, LocalDateTime now) {
+        if (date.isBefore(now.toLocalDate())) {
+            return 0;
+        }
+        return freeSlots(date, bookedSlots(doctorId, date), now);
+    }
+
+    /**
+     * Open slots on that date that are not in {@code booked} and start after {@code now}.
+     */
+    public static long freeSlots(LocalDate date, long booked, LocalDateTime now) {
+        if (date.isBefore(now.toLocalDate())) {
+            return 0;
+        }
+        long free = openingHours(date) & ~booked;
+        if (date.equals(now.toLocalDate())) {
+            // Drop slots starting at or before the current minute
+            int elapsedSlots = (now.getHour() * 60 + now.getMinute()) / SLOT_MINUTES + 1;
+            free &= -1L << elapsedSlots;
+        }
+        return free;
+    }
+
+    /**
+     * Free slot start times ("HH:mm") on that date, earliest first.
+     */
+    public List<String> freeSlotLabels(String doctorId, LocalDate date, LocalDateTime now) {
+        return labels(freeSlots(doctorId, date, now));
+    }
+
+    /**
+     * Slot start times ("HH:mm") of the set bits, earliest first.
+     */
+    public static List<String> labels(long slots) {
+        List<String> labels = new ArrayList<>(Long.bitCount(slots));
+        for (long remaining = slots; remaining != 0; remaining &= remaining - 1) {
+            labels.add(LABELS[Long.numberOfTrailingZeros(remaining)]);
+        }
+        return labels;
+    }
+
+    /**
+     * Record a booked appointment.
+     */
+    public void booked(String doctorId, LocalDateTime time) {
+        update(doctorId, time, true);
+    }
+
+    /**
+     * Record that an appointment no longer holds its slot (cancelled, moved or deleted).
+     */
+    public void released(String doctorId, LocalDateTime time) {
+        update(doctorId, time, false);
+    }
+
+    private void update(String doctorId, LocalDateTime time, boolean booked) {
+        if (doctorId == null || time == null) {
+            return;
+        }
+        long bit = bit(time);
+        if (bit == 0) {
+            return;
+        }
+        // Days not loaded yet will read the change from Mongo
+        days.compute(new DoctorDay(doctorId, time.toLocalDate()), (key, day) -> {
+            changes.incrementAndGet();
+            return day == null ? null
+                    : new Day(booked ? day.booked() | bit : day.booked() & ~bit, day.loadedAt());
+        });
+    }
+
+    private void store(DoctorDay key, long booked, long changesBefore, long now) {
+        if (days.size() >= MAX_CACHED_DAYS) {
+            days.keySet().removeIf(cached -> cached.date().isBefore(LocalDate.now()));
+            if (days.size() >= MAX_CACHED_DAYS) {
+                days.clear();
+            }
+        }
+        // Same-key compute calls are serialized, so a booking either lands after this
+        // entry is stored (and updates it) or before it (and stops it being stored)
+        days.compute(key, (k, cached) -> changes.get() == changesBefore ? new Day(booked, now) : cached);
+    }
+
+    // Bit for the slot starting at that time, or 0 if it is not on a slot boundary
+    private static long bit(LocalDateTime time) {
+        if (time == null) {
+            return 0;
+        }
+        int slot = slotOf(time.toLocalTime());
+        return slot >= 0 ? 1L << slot : 0;
+    }
+
+    private static long range(int fromHour, int fromMinute, int toHour, int toMinute) {
+        int from = (fromHour * 60 + fromMinute) / SLOT_MINUTES;
+        int to = (toHour * 60 + toMinute) / SLOT_MINUTES;
+        long bits = 0;
+        for (int slot = from; slot <= to; slot++) {
+            bits |= 1L << slot;
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,143 @@
+package com.hospitalfinder.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.hospitalfinder.backend.entity.SlotHold;
+
+/**
+ * Short-TTL holds on appointment slots for the chat booking flow.
+ *
+ * A hold is a {@link SlotHold} document whose id is the doctor and slot, so the
+ * collection's unique {@code _id} makes taking one atomic: a single upsert that
+ * matches only this session's hold or an expired one either takes the slot or
+ * fails with a duplicate key because another session holds it. Expired holds
+ * are swept by a TTL index and ignored before the sweep runs. Holds are soft:
+ * the slot is only really taken by {@link AppointmentBookingService#book}.
+ */
+@Service
+public class SlotHoldService {
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration ttl;
+
+    public SlotHoldService(MongoTemplate mongoTemplate,
+            @Value("${appointments.holds.ttl:5m}") Duration ttl) {
+        this.mongoTemplate = mongoTemplate;
+        this.ttl = ttl;
+    }
+
+    /**
+     * TTL index removing holds once {@code expiresAt} passes, and the lookup
+     * index for availability.
+     */
+    public static List<Index> indexes() {
+        return List.of(
+                new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO),
+                new Index().on("doctorId", Sort.Direction.ASC).on("appointmentTime", Sort.Direction.ASC));
+    }
+
+    /**
+     * Take or extend this session's hold on the slot. Returns false if another
+     * session holds it.
+     */
+    public boolean hold(String sessionId, String doctorId, LocalDateTime time) {
+        Instant now = Instant.now();
+        Query query = new Query(new Criteria().andOperator(
+                Criteria.where("_id").is(holdId(doctorId, time)),
+                new Criteria().orOperator(
+                        Criteria.where("sessionId").is(sessionId),
+                        Criteria.where("expiresAt").lte(now))));
+        Update update = new Update()
+                .set("doctorId", doctorId)
+                .set("appointmentTime", time)
+                .set("sessionId", sessionId)
+                .set("expiresAt", now.plus(ttl));
+        try {
+            mongoTemplate.upsert(query, update, SlotHold.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // A live hold by another session exists under this id
+            return false;
+        }
+    }
+
+    /**
+     * Drop this session's hold on the slot, if it still has one.
+     */
+    public void release(String sessionId, String doctorId, LocalDateTime time) {
+        if (sessionId == null || doctorId == null || time == null) {
+            return;
+        }
+        mongoTemplate.remove(new Query(Criteria.where("_id").is(holdId(doctorId, time))
+                .and("sessionId").is(sessionId)), SlotHold.class);
+    }
+
+    /**
+     * Whether a session other than {@code exceptSessionId} (null for any session)
+     * holds the slot.
+     */
+    public boolean isHeld(String doctorId, LocalDateTime time, String exceptSessionId) {
+        Criteria criteria = Criteria.where("_id").is(holdId(doctorId, time)).and("expiresAt").gt(Instant.now());
+        if (exceptSessionId != null) {
+            criteria = criteria.and("sessionId").ne(exceptSessionId);
+        }
+        return mongoTemplate.exists(new Query(criteria), SlotHold.class);
+    }
+
+    /**
+     * Bitmap of the doctor's slots on that date held by sessions other than
+     * {@code exceptSessionId}, in {@link SlotAvailabilityService} slot order.
+     */
+    public long heldSlots(String doctorId, LocalDate date, String exceptSessionId) {
+        return heldSlots(List.of(doctorId), date, date, exceptSessionId)
+                .getOrDefault(doctorId, Map.of())
+                .getOrDefault(date, 0L);
+    }
+
+    /**
+     * Held-slot bitmaps for several doctors over a date range (inclusive), by
+     * doctor id and date, with one query.
+     */
+    public Map<String, Map<LocalDate, Long>> heldSlots(Collection<String> doctorIds, LocalDate from, LocalDate to,
+            String exceptSessionId) {
+        Criteria criteria = Criteria.where("doctorId").in(doctorIds)
+                .and("appointmentTime").gte(from.atStartOfDay()).lt(to.plusDays(1).atStartOfDay())
+                .and("expiresAt").gt(Instant.now());
+        if (exceptSessionId != null) {
+            criteria = criteria.and("sessionId").ne(exceptSessionId);
+        }
+        Query query = new Query(criteria);
+        query.fields().include("doctorId").include("appointmentTime");
+
+        Map<String, Map<LocalDate, Long>> result = new HashMap<>();
+        for (SlotHold hold : mongoTemplate.find(query, SlotHold.class)) {
+            int slot = SlotAvailabilityService.slotOf(hold.getAppointmentTime().toLocalTime());
+            if (slot >= 0) {
+                result.computeIfAbsent(hold.getDoctorId(), id -> new HashMap<>())
+                        .merge(hold.getAppointmentTime().toLocalDate(), 1L << slot, (a, b) -> a | b);
+            }
+        }
+        return result;
+    }
+
+    private static String holdId(String doctorId, LocalDateTime time) {
+        return doctorId + "|" + time;
+    }
+}
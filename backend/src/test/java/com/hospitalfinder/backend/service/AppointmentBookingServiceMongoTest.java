@@ -0,0 +1,127 @@
+package com.hospitalfinder.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.hospitalfinder.backend.entity.Appointment;
+import com.hospitalfinder.backend.exception.SlotAlreadyBookedException;
+import com.hospitalfinder.backend.repository.AppointmentRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+/**
+ * Books against a real MongoDB with the {@link AppointmentBookingService#slotIndex()}
+ * partial unique index. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class AppointmentBookingServiceMongoTest {
+
+    private static final int BOOKINGS = 300;
+    private static final LocalDateTime SLOT = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    @Container
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static AppointmentBookingService bookingService;
+
+    @BeforeAll
+    static void connect() {
+        client = MongoClients.create(MONGO.getConnectionString());
+        mongoTemplate = new MongoTemplate(client, "hospico-test");
+        AppointmentRepository repository =
+                new MongoRepositoryFactory(mongoTemplate).getRepository(AppointmentRepository.class);
+        bookingService = new AppointmentBookingService(repository, mock(SlotAvailabilityService.class),
+                mock(AppointmentRollupService.class));
+    }
+
+    @AfterAll
+    static void disconnect() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @BeforeEach
+    void emptyCollectionWithSlotIndex() {
+        mongoTemplate.dropCollection(Appointment.class);
+        mongoTemplate.indexOps(Appointment.class).ensureIndex(AppointmentBookingService.slotIndex());
+    }
+
+    @Test
+    void concurrentBookingsOfOneSlotLetExactlyOneThrough() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < BOOKINGS; i++) {
+                Appointment appointment = appointment("patient-" + i);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        bookingService.book(appointment);
+                        return true;
+                    } catch (SlotAlreadyBookedException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int booked = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(60, TimeUnit.SECONDS)) {
+                    booked++;
+                }
+            }
+            assertEquals(1, booked);
+            assertEquals(1, mongoTemplate.count(new Query(Criteria.where("doctorId").is("doctor-1")
+                    .and("appointmentTime").is(SLOT)), Appointment.class));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void aCancelledAppointmentDoesNotHoldItsSlot() {
+        Appointment cancelled = bookingService.book(appointment("first"));
+        Appointment previous = AppointmentBookingService.snapshot(cancelled);
+        cancelled.setStatus(AppointmentRollupService.CANCELLED);
+        bookingService.update(cancelled, previous);
+
+        bookingService.book(appointment("second"));
+
+        assertEquals(2, mongoTemplate.count(new Query(), Appointment.class));
+    }
+
+    private static Appointment appointment(String patientName) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctorId("doctor-1");
+        appointment.setClinicId("clinic-1");
+        appointment.setAppointmentTime(SLOT);
+        appointment.setPatientName(patientName);
+        return appointment;
+    }
+}
@@ -0,0 +1,98 @@
+package com.hospitalfinder.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+
+import com.hospitalfinder.backend.entity.Appointment;
+import com.hospitalfinder.backend.exception.SlotAlreadyBookedException;
+import com.hospitalfinder.backend.repository.AppointmentRepository;
+
+/**
+ * Slot uniqueness itself is enforced by MongoDB through {@link AppointmentBookingService#slotIndex()};
+ * these tests cover the index definition and how the service reacts to the database's verdict.
+ */
+class AppointmentBookingServiceTest {
+
+    private static final LocalDateTime SLOT = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    private final AppointmentRepository repository = mock(AppointmentRepository.class);
+    private final SlotAvailabilityService availability = mock(SlotAvailabilityService.class);
+    private final AppointmentRollupService rollups = mock(AppointmentRollupService.class);
+    private final AppointmentBookingService bookingService =
+            new AppointmentBookingService(repository, availability, rollups);
+
+    @Test
+    void bookInsertsAsBookedAndPublishesTheSlot() {
+        when(repository.insert(any(Appointment.class))).thenAnswer(invocation -> {
+            Appointment appointment = invocation.getArgument(0);
+            appointment.setId("appointment-1");
+            return appointment;
+        });
+        Appointment appointment = appointment();
+
+        Appointment saved = bookingService.book(appointment);
+
+        assertSame(appointment, saved);
+        assertEquals(AppointmentBookingService.BOOKED, saved.getStatus());
+        verify(availability).booked("doctor-1", SLOT);
+        verify(rollups).recorded(saved);
+    }
+
+    @Test
+    void duplicateKeyOnBookIsReportedAsSlotAlreadyBooked() {
+        when(repository.insert(any(Appointment.class)))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+        assertThrows(SlotAlreadyBookedException.class, () -> bookingService.book(appointment()));
+        verifyNoInteractions(availability, rollups);
+    }
+
+    @Test
+    void duplicateKeyOnUpdateIsReportedAsSlotAlreadyBookedAndKeepsTheOldSlot() {
+        Appointment previous = appointment();
+        previous.setStatus(AppointmentBookingService.BOOKED);
+        Appointment moved = appointment();
+        moved.setStatus(AppointmentBookingService.BOOKED);
+        moved.setAppointmentTime(SLOT.plusMinutes(30));
+        when(repository.save(any(Appointment.class)))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+        assertThrows(SlotAlreadyBookedException.class, () -> bookingService.update(moved, previous));
+        verifyNoInteractions(availability, rollups);
+    }
+
+    @Test
+    void slotIndexIsUniqueAndOnlyCoversBookedAppointments() {
+        Document index = AppointmentBookingService.slotIndex().getIndexOptions();
+        Document keys = AppointmentBookingService.slotIndex().getIndexKeys();
+
+        assertEquals(List.of("doctorId", "appointmentTime"), new ArrayList<>(keys.keySet()));
+        assertTrue(index.getBoolean("unique"));
+        assertEquals(new Document("status", AppointmentBookingService.BOOKED),
+                index.get("partialFilterExpression"));
+    }
+
+    private static Appointment appointment() {
+        Appointment appointment = new Appointment();
+        appointment.setDoctorId("doctor-1");
+        appointment.setClinicId("clinic-1");
+        appointment.setAppointmentTime(SLOT);
+        appointment.setPatientName("patient");
+        return appointment;
+    }
+}
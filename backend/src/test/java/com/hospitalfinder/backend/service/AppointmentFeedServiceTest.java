@@ -0,0 +1,257 @@
+package com.hospitalfinder.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+
+import com.hospitalfinder.backend.dto.AppointmentPageCursor;
+import com.hospitalfinder.backend.dto.AppointmentResponseDTO;
+import com.hospitalfinder.backend.dto.CursorPage;
+import com.hospitalfinder.backend.entity.Appointment;
+import com.hospitalfinder.backend.exception.GlobalExceptionHandler;
+
+class AppointmentFeedServiceTest {
+
+    private static final int APPOINTMENTS = 1_000;
+    // Several appointments share each time, so pages end in the middle of ties
+    private static final int PER_TIME = 4;
+    private static final LocalDate FROM = LocalDate.of(2030, 1, 7);
+    private static final LocalDate TO = FROM.plusDays(30);
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final AppointmentFeedService feedService =
+            new AppointmentFeedService(mongoTemplate, enrichment());
+    private final List<Appointment> stored = appointments();
+
+    AppointmentFeedServiceTest() {
+        // Evaluates the generated query against the stored list, the way MongoDB would
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class))).thenAnswer(invocation -> {
+            Query query = invocation.getArgument(0);
+            return stored.stream()
+                    .filter(appointment -> matches(query.getQueryObject(), appointment))
+                    .sorted(order(query.getSortObject()))
+                    .limit(query.getLimit())
+                    .toList();
+        });
+    }
+
+    @Test
+    void ascendingPagesReturnEveryAppointmentOnceWithTiedTimes() {
+        List<String> expected = stored.stream()
+                .filter(appointment -> "clinic-1".equals(appointment.getClinicId()))
+                .sorted(Comparator.comparing(Appointment::getAppointmentTime).thenComparing(Appointment::getId))
+                .map(Appointment::getId)
+                .toList();
+
+        assertEquals(expected, readAll("asc", 120));
+        assertEquals(expected, readAll(null, 7));
+    }
+
+    @Test
+    void descendingPagesReturnEveryAppointmentOnceWithTiedTimes() {
+        List<String> expected = stored.stream()
+                .filter(appointment -> "clinic-1".equals(appointment.getClinicId()))
+                .sorted(Comparator.comparing(Appointment::getAppointmentTime).thenComparing(Appointment::getId)
+                        .reversed())
+                .map(Appointment::getId)
+                .toList();
+
+        assertEquals(expected, readAll("desc", 120));
+        assertEquals(expected, readAll("DESC", 7));
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        CursorPage<AppointmentResponseDTO> page = feedService.page(scope(), FROM, TO, null, "asc", null,
+                AppointmentFeedService.MAX_LIMIT);
+        assertTrue(page.nextCursor() != null);
+
+        CursorPage<AppointmentResponseDTO> all = feedService.page(scope(), FROM, FROM, null, "asc", null,
+                AppointmentFeedService.MAX_LIMIT);
+        assertNull(all.nextCursor());
+    }
+
+    @Test
+    void cursorRoundTrips() {
+        AppointmentPageCursor cursor = new AppointmentPageCursor(LocalDateTime.of(2030, 1, 7, 9, 30), "a|b");
+
+        assertEquals(cursor, AppointmentPageCursor.decode(cursor.encode()));
+        assertNull(AppointmentPageCursor.decode(null));
+        assertNull(AppointmentPageCursor.decode(" "));
+    }
+
+    @Test
+    void invalidCursorIsABadRequest() {
+        for (String cursor : List.of("not a cursor!", encode("a1|2030-01-07T09:30"), encode("a1|yesterday|id-1"),
+                encode("a2|2030-01-07T09:30|id-1"), encode("a1|2030-01-07T09:30|"))) {
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                    () -> feedService.page(scope(), FROM, TO, null, "asc", cursor, 10), cursor);
+
+            assertEquals("Invalid cursor", error.getMessage());
+            assertEquals(HttpStatus.BAD_REQUEST,
+                    new GlobalExceptionHandler().handleRuntimeException(error).getStatusCode());
+        }
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Appointment.class));
+    }
+
+    @Test
+    void invalidLimitsAndOrdersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> feedService.page(scope(), FROM, TO, null, "asc", null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> feedService.page(scope(), FROM, TO, null, "asc", null, AppointmentFeedService.MAX_LIMIT + 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> feedService.page(scope(), FROM, TO, null, "newest", null, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> feedService.page(scope(), TO, FROM, null, "asc", null, 10));
+    }
+
+    private List<String> readAll(String order, int limit) {
+        List<String> ids = new ArrayList<>();
+        Set<String> cursors = new HashSet<>();
+        String cursor = null;
+        do {
+            CursorPage<AppointmentResponseDTO> page = feedService.page(scope(), FROM, TO, null, order, cursor, limit);
+            assertTrue(page.items().size() <= limit);
+            page.items().forEach(item -> ids.add(item.getId()));
+            cursor = page.nextCursor();
+            assertTrue(cursor == null || cursors.add(cursor), "cursor repeated");
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static Criteria scope() {
+        return Criteria.where("clinicId").is("clinic-1");
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static AppointmentEnrichmentService enrichment() {
+        AppointmentEnrichmentService enrichment = mock(AppointmentEnrichmentService.class);
+        when(enrichment.enrich(anyCollection())).thenAnswer(invocation -> {
+            Collection<Appointment> appointments = invocation.getArgument(0);
+            return appointments.stream().map(AppointmentResponseDTO::new).toList();
+        });
+        return enrichment;
+    }
+
+    private static List<Appointment> appointments() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            ids.add(String.format("%024x", i));
+        }
+        // Ids are not in time order, as with ObjectIds of appointments booked at random
+        Collections.shuffle(ids, new Random(7));
+        List<Appointment> appointments = new ArrayList<>();
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setId(ids.get(i));
+            appointment.setClinicId("clinic-1");
+            appointment.setStatus(AppointmentBookingService.BOOKED);
+            appointment.setAppointmentTime(FROM.atTime(9, 0).plusMinutes(30L * (i / PER_TIME)));
+            appointments.add(appointment);
+        }
+        // Another clinic's appointments at the same times must never show up
+        for (int i = 0; i < 50; i++) {
+            Appointment other = new Appointment();
+            other.setId("other-" + i);
+            other.setClinicId("clinic-2");
+            other.setAppointmentTime(FROM.atTime(9, 0).plusMinutes(30L * i));
+            appointments.add(other);
+        }
+        Collections.shuffle(appointments, new Random(11));
+        return appointments;
+    }
+
+    // Just enough of the query language for the feed queries: $and, $or, equality, $gt/$gte/$lt/$lte
+    @SuppressWarnings("unchecked")
+    private static boolean matches(Document query, Appointment appointment) {
+        for (Map.Entry<String, Object> entry : query.entrySet()) {
+            Object value = entry.getValue();
+            boolean matched = switch (entry.getKey()) {
+                case "$and" -> ((List<Document>) value).stream().allMatch(part -> matches(part, appointment));
+                case "$or" -> ((List<Document>) value).stream().anyMatch(part -> matches(part, appointment));
+                default -> matches(field(appointment, entry.getKey()), value);
+            };
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static boolean matches(Comparable actual, Object condition) {
+        if (!(condition instanceof Document operators)) {
+            return condition.equals(actual);
+        }
+        if (actual == null) {
+            return false;
+        }
+        for (Map.Entry<String, Object> operator : operators.entrySet()) {
+            int comparison = actual.compareTo(operator.getValue());
+            boolean matched = switch (operator.getKey()) {
+                case "$gt" -> comparison > 0;
+                case "$gte" -> comparison >= 0;
+                case "$lt" -> comparison < 0;
+                case "$lte" -> comparison <= 0;
+                default -> throw new IllegalStateException("Unexpected operator " + operator.getKey());
+            };
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Comparator<Appointment> order(Document sort) {
+        Comparator<Appointment> order = (a, b) -> 0;
+        for (Map.Entry<String, Object> key : sort.entrySet()) {
+            Comparator<Appointment> byKey = Comparator.comparing(a -> (Comparable) field(a, key.getKey()));
+            order = order.thenComparing(((Number) key.getValue()).intValue() < 0 ? byKey.reversed() : byKey);
+        }
+        return order;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Comparable field(Appointment appointment, String name) {
+        return switch (name) {
+            case "id", "_id" -> appointment.getId();
+            case "clinicId" -> appointment.getClinicId();
+            case "appointmentTime" -> appointment.getAppointmentTime();
+            case "status" -> appointment.getStatus();
+            default -> throw new IllegalStateException("Unexpected field " + name);
+        };
+    }
+}
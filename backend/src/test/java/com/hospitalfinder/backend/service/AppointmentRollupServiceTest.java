@@ -0,0 +1,160 @@
+package com.hospitalfinder.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.hospitalfinder.backend.entity.Appointment;
+import com.hospitalfinder.backend.entity.AppointmentRollup;
+import com.hospitalfinder.backend.entity.Doctor;
+import com.hospitalfinder.backend.entity.User;
+
+class AppointmentRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 7);
+
+    // Rollup rows by id, as the $inc upserts leave them
+    private final Map<String, long[]> rows = new TreeMap<>();
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final AppointmentRollupService rollupService = new AppointmentRollupService(mongoTemplate);
+
+    @BeforeEach
+    void emulateRollupUpserts() {
+        BulkOperations operations = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AppointmentRollup.class))
+                .thenReturn(operations);
+        when(operations.upsert(any(Query.class), any(Update.class))).thenAnswer(invocation -> {
+            String id = invocation.<Query>getArgument(0).getQueryObject().getString("_id");
+            Document inc = invocation.<Update>getArgument(1).getUpdateObject().get("$inc", Document.class);
+            long[] row = rows.computeIfAbsent(id, key -> new long[3]);
+            row[0] += ((Number) inc.get("booked")).longValue();
+            row[1] += ((Number) inc.get("cancelled")).longValue();
+            row[2] += ((Number) inc.get("total")).longValue();
+            return operations;
+        });
+    }
+
+    @Test
+    void editingPatientDetailsLeavesTheClinicRollupUnchanged() {
+        Appointment stored = appointment();
+        rollupService.recorded(stored);
+
+        Appointment previous = AppointmentBookingService.snapshot(stored);
+        stored.setPatientName("someone else");
+        stored.setReason("follow-up");
+        rollupService.changed(previous, stored);
+
+        assertEquals(Map.of("clinic-1|doctor-1|" + DAY, "1/0/1"), counts());
+    }
+
+    @Test
+    void reschedulingMovesTheCountWithinTheClinic() {
+        Appointment stored = appointment();
+        rollupService.recorded(stored);
+
+        Appointment previous = AppointmentBookingService.snapshot(stored);
+        stored.setAppointmentTime(DAY.plusDays(1).atTime(11, 0));
+        rollupService.changed(previous, stored);
+
+        assertEquals(Map.of(
+                "clinic-1|doctor-1|" + DAY, "0/0/0",
+                "clinic-1|doctor-1|" + DAY.plusDays(1), "1/0/1"), counts());
+    }
+
+    @Test
+    void cancellingMovesTheCountFromBookedToCancelled() {
+        Appointment stored = appointment();
+        rollupService.recorded(stored);
+
+        Appointment previous = AppointmentBookingService.snapshot(stored);
+        stored.setStatus(AppointmentRollupService.CANCELLED);
+        rollupService.changed(previous, stored);
+
+        assertEquals(Map.of("clinic-1|doctor-1|" + DAY, "0/1/1"), counts());
+    }
+
+    @Test
+    void patientRowsFollowTheAppointmentBetweenDoctors() {
+        Appointment stored = appointment();
+        stored.setUserId("user-1");
+        rollupService.recorded(stored);
+
+        Appointment previous = AppointmentBookingService.snapshot(stored);
+        stored.setPatientName("someone else");
+        rollupService.changed(previous, stored);
+        assertEquals("0/0/1", counts().get("patient|clinic-1|doctor-1|user-1"));
+
+        previous = AppointmentBookingService.snapshot(stored);
+        stored.setDoctorId("doctor-2");
+        rollupService.changed(previous, stored);
+
+        assertEquals("0/0/0", counts().get("patient|clinic-1|doctor-1|user-1"));
+        assertEquals("0/0/1", counts().get("patient|clinic-1|doctor-2|user-1"));
+        assertEquals("1/0/1", counts().get("clinic-1|doctor-2|" + DAY));
+    }
+
+    @Test
+    void summaryIsOneAggregateIncludingPatientsSpecializationsAndUserCount() {
+        when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+        when(mongoTemplate.getCollectionName(Doctor.class)).thenReturn("doctors");
+        Document result = new Document()
+                .append("totals", List.of(new Document("booked", 5).append("cancelled", 2).append("total", 8)))
+                .append("byDay", List.of(new Document("_id", DAY.toString()).append("total", 3)))
+                .append("bySpecialization", List.of(new Document("_id", "Cardiology").append("total", 8)))
+                .append("patients", List.of(new Document("count", 4)))
+                .append("collections", List.of(new Document("_id", "users").append("count", 42L)));
+        ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+        when(mongoTemplate.aggregate(aggregation.capture(), eq(AppointmentRollup.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(result), new Document()));
+
+        AppointmentRollupService.Summary summary = rollupService.summary(
+                Criteria.where("clinicId").is("clinic-1"), DAY.minusDays(6), DAY, User.class);
+
+        verify(mongoTemplate, times(1)).aggregate(any(Aggregation.class), eq(AppointmentRollup.class),
+                eq(Document.class));
+        List<String> stages = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT).stream()
+                .map(stage -> stage.keySet().iterator().next())
+                .toList();
+        assertEquals(List.of("$match", "$unionWith", "$facet"), stages);
+        assertEquals(new AppointmentRollupService.Summary(5, 2, 8, Map.of(DAY, 3L), Map.of("Cardiology", 8L), 4,
+                Map.of("users", 42L)), summary);
+    }
+
+    private Map<String, String> counts() {
+        Map<String, String> counts = new TreeMap<>();
+        rows.forEach((id, row) -> counts.put(id, row[0] + "/" + row[1] + "/" + row[2]));
+        return counts;
+    }
+
+    private static Appointment appointment() {
+        Appointment appointment = new Appointment();
+        appointment.setId("appointment-1");
+        appointment.setClinicId("clinic-1");
+        appointment.setDoctorId("doctor-1");
+        appointment.setAppointmentTime(DAY.atTime(10, 0));
+        appointment.setStatus(AppointmentBookingService.BOOKED);
+        appointment.setPatientName("patient");
+        return appointment;
+    }
+}
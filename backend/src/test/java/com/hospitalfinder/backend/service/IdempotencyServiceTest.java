@@ -0,0 +1,216 @@
+package com.hospitalfinder.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospitalfinder.backend.entity.IdempotencyRecord;
+
+class IdempotencyServiceTest {
+
+    private static final int REQUESTS = 64;
+    private static final Map<String, String> REQUEST = Map.of("doctorId", "doctor-1", "time", "2030-01-07T10:00");
+
+    // Stands in for the idempotency_keys collection, with _id uniqueness
+    private final Map<String, IdempotencyRecord> records = new HashMap<>();
+    private final MongoTemplate mongoTemplate = store();
+
+    @Test
+    void concurrentRequestsWithOneKeyRunTheActionOnce() throws Exception {
+        IdempotencyService service = service();
+        AtomicInteger runs = new AtomicInteger();
+        Supplier<ResponseEntity<?>> action = () -> {
+            runs.incrementAndGet();
+            sleep(200);
+            return ResponseEntity.ok(Map.of("id", "appointment-1"));
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(REQUESTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ResponseEntity<?>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < REQUESTS; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return service.execute("appointments", "key-1", REQUEST, action);
+                }));
+            }
+            start.countDown();
+
+            int replayed = 0;
+            for (Future<ResponseEntity<?>> result : results) {
+                ResponseEntity<?> response = result.get(30, TimeUnit.SECONDS);
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                assertEquals("{\"id\":\"appointment-1\"}", json(response.getBody()));
+                if (response.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)) {
+                    replayed++;
+                }
+            }
+            assertEquals(1, runs.get());
+            assertEquals(REQUESTS - 1, replayed);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void laterRetriesAreReplayedFromTheStoreAndChangedBodiesRejected() {
+        AtomicInteger runs = new AtomicInteger();
+        Supplier<ResponseEntity<?>> action = () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("id", "appointment-1"));
+        };
+        service().execute("appointments", "key-1", REQUEST, action);
+
+        // Another instance, so nothing is in flight locally
+        IdempotencyService other = service();
+        ResponseEntity<?> retry = other.execute("appointments", "key-1", REQUEST, action);
+        ResponseEntity<?> changed = other.execute("appointments", "key-1", Map.of("doctorId", "doctor-2"), action);
+        ResponseEntity<?> otherScope = other.execute("chat", "key-1", REQUEST, action);
+
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals("{\"id\":\"appointment-1\"}", retry.getBody());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, changed.getStatusCode());
+        assertEquals(HttpStatus.CREATED, otherScope.getStatusCode());
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void failuresAreNotStoredSoTheRetryRunsAgain() {
+        IdempotencyService service = service();
+        assertThrows(IllegalStateException.class, () -> service.execute("appointments", "key-1", REQUEST, () -> {
+            throw new IllegalStateException("database down");
+        }));
+        ResponseEntity<?> unavailable = service.execute("appointments", "key-1", REQUEST,
+                () -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+
+        ResponseEntity<?> retry = service.execute("appointments", "key-1", REQUEST, () -> ResponseEntity.ok("booked"));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, unavailable.getStatusCode());
+        assertEquals("booked", retry.getBody());
+        assertFalse(retry.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void requestsWithoutAKeyAlwaysRun() {
+        AtomicInteger runs = new AtomicInteger();
+        IdempotencyService service = service();
+
+        service.execute("appointments", null, REQUEST, () -> ResponseEntity.ok(runs.incrementAndGet()));
+        service.execute("appointments", " ", REQUEST, () -> ResponseEntity.ok(runs.incrementAndGet()));
+
+        assertEquals(2, runs.get());
+        assertTrue(records.isEmpty());
+    }
+
+    private IdempotencyService service() {
+        return new IdempotencyService(mongoTemplate, new ObjectMapper(), Duration.ofHours(24), Duration.ofSeconds(30),
+                Duration.ofSeconds(10));
+    }
+
+    private MongoTemplate store() {
+        MongoTemplate template = mock(MongoTemplate.class);
+        // Claim: update the record if it matches, otherwise insert, which fails if the _id exists
+        when(template.upsert(any(Query.class), any(UpdateDefinition.class), eq(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> {
+                    Document query = invocation.<Query>getArgument(0).getQueryObject();
+                    Document set = set(invocation.getArgument(1));
+                    synchronized (records) {
+                        String id = query.getString("_id");
+                        IdempotencyRecord record = records.get(id);
+                        if (record == null) {
+                            record = new IdempotencyRecord();
+                            record.setId(id);
+                            record.setFingerprint(query.getString("fingerprint"));
+                        } else if (!record.getFingerprint().equals(query.getString("fingerprint"))
+                                || !query.getString("status").equals(record.getStatus())
+                                || record.getLockedUntil().isAfter(
+                                        (Instant) query.get("lockedUntil", Document.class).get("$lte"))) {
+                            throw new DuplicateKeyException("E11000 duplicate key error");
+                        }
+                        record.setStatus(set.getString("status"));
+                        record.setLockedUntil((Instant) set.get("lockedUntil"));
+                        records.put(id, record);
+                    }
+                    return null;
+                });
+        when(template.findById(any(), eq(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            synchronized (records) {
+                return records.get(invocation.<String>getArgument(0));
+            }
+        });
+        when(template.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> {
+                    Document query = invocation.<Query>getArgument(0).getQueryObject();
+                    Document set = set(invocation.getArgument(1));
+                    synchronized (records) {
+                        IdempotencyRecord record = records.get(query.getString("_id"));
+                        if (record != null && query.get("lockedUntil").equals(record.getLockedUntil())) {
+                            record.setStatus(set.getString("status"));
+                            record.setResponseStatus(set.getInteger("responseStatus"));
+                            record.setResponseContentType(set.getString("responseContentType"));
+                            record.setResponseBody(set.getString("responseBody"));
+                            record.setLockedUntil(null);
+                        }
+                    }
+                    return null;
+                });
+        when(template.remove(any(Query.class), eq(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            Document query = invocation.<Query>getArgument(0).getQueryObject();
+            synchronized (records) {
+                IdempotencyRecord record = records.get(query.getString("_id"));
+                if (record != null && query.get("lockedUntil").equals(record.getLockedUntil())) {
+                    records.remove(record.getId());
+                }
+            }
+            return null;
+        });
+        return template;
+    }
+
+    private static Document set(UpdateDefinition update) {
+        return update.getUpdateObject().get("$set", Document.class);
+    }
+
+    private static String json(Object body) throws Exception {
+        return body instanceof String text ? text : new ObjectMapper().writeValueAsString(body);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
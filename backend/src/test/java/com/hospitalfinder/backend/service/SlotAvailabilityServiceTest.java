@@ -0,0 +1,167 @@
+package com.hospitalfinder.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.hospitalfinder.backend.entity.Appointment;
+import com.hospitalfinder.backend.repository.AppointmentRepository;
+
+class SlotAvailabilityServiceTest {
+
+    // A Monday, so the week below covers six weekdays and one Sunday
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+    private static final LocalDate SUNDAY = MONDAY.plusDays(6);
+
+    private final AppointmentRepository repository = mock(AppointmentRepository.class);
+    private final SlotAvailabilityService service = new SlotAvailabilityService(repository, Duration.ofMinutes(10));
+
+    @Test
+    void freeSlotsMatchTheSlotListBuiltTimeByTime() {
+        Random random = new Random(3);
+        for (LocalDate date = MONDAY; !date.isAfter(SUNDAY); date = date.plusDays(1)) {
+            for (int minute = 0; minute < 24 * 60; minute += 7) {
+                LocalDateTime now = date.atStartOfDay().plusMinutes(minute);
+                long booked = random.nextLong() & SlotAvailabilityService.openingHours(date);
+                Set<String> bookedLabels = new HashSet<>(SlotAvailabilityService.labels(booked));
+
+                assertEquals(slotsBuiltTimeByTime(date, bookedLabels, now),
+                        SlotAvailabilityService.labels(SlotAvailabilityService.freeSlots(date, booked, now)),
+                        "today at " + now);
+                assertEquals(slotsBuiltTimeByTime(date, bookedLabels, now.minusDays(1)),
+                        SlotAvailabilityService.labels(SlotAvailabilityService.freeSlots(date, booked, now.minusDays(1))),
+                        "future day " + date);
+            }
+        }
+    }
+
+    @Test
+    void sundayAfternoonsEndAtSix() {
+        List<String> weekday = SlotAvailabilityService.labels(SlotAvailabilityService.openingHours(MONDAY));
+        List<String> sunday = SlotAvailabilityService.labels(SlotAvailabilityService.openingHours(SUNDAY));
+
+        assertEquals(List.of("09:00", "13:00", "14:00", "20:00"), List.of(weekday.get(0), weekday.get(8),
+                weekday.get(9), weekday.get(weekday.size() - 1)));
+        assertEquals(22, weekday.size());
+        assertEquals("18:00", sunday.get(sunday.size() - 1));
+        assertEquals(18, sunday.size());
+    }
+
+    @Test
+    void todayDropsSlotsStartingAtOrBeforeTheCurrentMinute() {
+        assertEquals("10:00", firstFree(MONDAY.atTime(9, 59)));
+        assertEquals("10:30", firstFree(MONDAY.atTime(10, 0)));
+        assertEquals("10:30", firstFree(MONDAY.atTime(10, 1)));
+        assertEquals("14:00", firstFree(MONDAY.atTime(13, 0)));
+        assertEquals(0, SlotAvailabilityService.freeSlots(MONDAY, 0, MONDAY.atTime(20, 0)));
+        assertEquals(0, SlotAvailabilityService.freeSlots(MONDAY, 0, MONDAY.plusDays(1).atTime(8, 0)));
+    }
+
+    @Test
+    void bookingsAndReleasesUpdateACachedDay() {
+        when(repository.findByDoctorAndDate(eq("doctor-1"), any(), any()))
+                .thenReturn(List.of(booked(MONDAY.atTime(9, 0))));
+
+        assertEquals(List.of("09:00"), SlotAvailabilityService.labels(service.bookedSlots("doctor-1", MONDAY)));
+        service.booked("doctor-1", MONDAY.atTime(10, 30));
+        service.released("doctor-1", MONDAY.atTime(9, 0));
+
+        assertEquals(List.of("10:30"), SlotAvailabilityService.labels(service.bookedSlots("doctor-1", MONDAY)));
+        verify(repository, times(1)).findByDoctorAndDate(any(), any(), any());
+    }
+
+    @Test
+    void aLoadThatRacedABookingIsNotCached() {
+        // The booking lands while the day is being read, so the read misses it
+        when(repository.findByDoctorAndDate(eq("doctor-1"), any(), any()))
+                .thenAnswer(invocation -> {
+                    service.booked("doctor-1", MONDAY.atTime(11, 0));
+                    return List.of();
+                })
+                .thenReturn(List.of(booked(MONDAY.atTime(11, 0))));
+
+        assertEquals(0, service.bookedSlots("doctor-1", MONDAY));
+        assertEquals(List.of("11:00"), SlotAvailabilityService.labels(service.bookedSlots("doctor-1", MONDAY)));
+        assertEquals(List.of("11:00"), SlotAvailabilityService.labels(service.bookedSlots("doctor-1", MONDAY)));
+        verify(repository, times(2)).findByDoctorAndDate(any(), any(), any());
+    }
+
+    @Test
+    void severalDoctorsAndDaysAreLoadedWithOneRangeQuery() {
+        Appointment other = booked(MONDAY.atTime(10, 30));
+        other.setDoctorId("doctor-2");
+        when(repository.findBookedByDoctorIdsBetween(any(), any(), any()))
+                .thenReturn(List.of(booked(MONDAY.atTime(9, 0)), booked(MONDAY.plusDays(2).atTime(14, 30)), other));
+
+        Map<String, Map<LocalDate, Long>> slots = service.bookedSlots(List.of("doctor-1", "doctor-2", "doctor-3"),
+                MONDAY, MONDAY.plusDays(3));
+        service.bookedSlots(List.of("doctor-1", "doctor-2", "doctor-3"), MONDAY, MONDAY.plusDays(3));
+
+        assertEquals(List.of("09:00"), SlotAvailabilityService.labels(slots.get("doctor-1").get(MONDAY)));
+        assertEquals(List.of("14:30"),
+                SlotAvailabilityService.labels(slots.get("doctor-1").get(MONDAY.plusDays(2))));
+        assertEquals(List.of("10:30"), SlotAvailabilityService.labels(slots.get("doctor-2").get(MONDAY)));
+        assertEquals(4, slots.get("doctor-3").size());
+        assertEquals(0, service.bookedSlots("doctor-3", MONDAY));
+        verify(repository, times(1)).findBookedByDoctorIdsBetween(any(), any(), any());
+        verify(repository, never()).findByDoctorAndDate(any(), any(), any());
+    }
+
+    private static String firstFree(LocalDateTime now) {
+        return SlotAvailabilityService.labels(SlotAvailabilityService.freeSlots(now.toLocalDate(), 0, now)).get(0);
+    }
+
+    private static Appointment booked(LocalDateTime time) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctorId("doctor-1");
+        appointment.setAppointmentTime(time);
+        appointment.setStatus(AppointmentBookingService.BOOKED);
+        return appointment;
+    }
+
+    // The hour/minute loops the bitmaps replaced, kept as the reference
+    private static List<String> slotsBuiltTimeByTime(LocalDate date, Set<String> booked, LocalDateTime now) {
+        List<String> slots = new ArrayList<>();
+        if (date.isBefore(now.toLocalDate())) {
+            return slots;
+        }
+        boolean isToday = date.equals(now.toLocalDate());
+        int currentHour = isToday ? now.getHour() : 0;
+        int currentMinute = isToday ? now.getMinute() : 0;
+        int[][] sessions = { { 9, 13 }, { 14, date.getDayOfWeek().getValue() == 7 ? 18 : 20 } };
+        for (int[] session : sessions) {
+            for (int hour = session[0]; hour <= session[1]; hour++) {
+                for (int minute = 0; minute < 60; minute += 30) {
+                    if (hour == session[1] && minute > 0) {
+                        break;
+                    }
+                    if (isToday && (hour < currentHour || (hour == currentHour && minute <= currentMinute))) {
+                        continue;
+                    }
+                    String time = String.format("%02d:%02d", hour, minute);
+                    if (!booked.contains(time)) {
+                        slots.add(time);
+                    }
+                }
+            }
+        }
+        return slots;
+    }
+}
@@ -166,7 +166,7 @@ const AppointmentBooking = ({ hospitalId, doctorId, doctorName, specialization,
           console.log(`✅ Found ${appointments.length} appointment(s)`);
 
           bookedTimes = appointments
-            .filter(apt => apt.status === "BOOKED")
+            .filter(apt => apt.status === "BOOKED" || apt.status === "HELD")
             .map((apt) => {
               const time = apt.appointmentTime?.substring(11, 16);
               console.log(`  ✅ Extracted booked time: ${time}`);
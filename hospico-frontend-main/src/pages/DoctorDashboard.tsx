@@ -29,6 +29,26 @@ interface Appointment {
     symptoms: string;
 }
 
+// Collects every page of a dashboard appointment feed (the next-page cursor comes in X-Next-Cursor)
+const fetchAllPages = async (url: string, token: string | null): Promise<Appointment[]> => {
+    const items: Appointment[] = [];
+    let cursor: string | null = null;
+    do {
+        const pageUrl: string = cursor ? `${url}?limit=200&cursor=${encodeURIComponent(cursor)}` : `${url}?limit=200`;
+        const response = await fetch(pageUrl, { headers: { Authorization: `Bearer ${token}` } });
+        if (!response.ok) {
+            break;
+        }
+        const page = await response.json();
+        if (!Array.isArray(page)) {
+            break;
+        }
+        items.push(...page);
+        cursor = response.headers.get('X-Next-Cursor');
+    } while (cursor);
+    return items;
+};
+
 const DoctorDashboard = () => {
     const { doctorId } = useParams();
     const navigate = useNavigate();
@@ -75,37 +95,27 @@ const DoctorDashboard = () => {
                 headers: { Authorization: `Bearer ${token}` }
             });
 
+            let total = 0;
             if (statsResponse.ok) {
                 const statsData = await statsResponse.json();
-                // Since the backend returns a generic structure, we map it
-                // For doctors: totalAppointments is in appointments count field
+                total = statsData.appointmentCount || 0;
                 setStats(prev => ({
                     ...prev,
-                    appointments: statsData.totalAppointments || 0,
-                    totalPatients: statsData.totalAppointments || 0 // Proxy for now
+                    appointments: total,
+                    totalPatients: statsData.appointments?.distinctPatients ?? total
                 }));
             }
 
-            // 2. Fetch Appointments
-            const apptResponse = await fetch(`${API_BASE_URL}/api/dashboard/appointments/my-patients`, {
-                headers: { Authorization: `Bearer ${token}` }
-            });
+            // 2. Fetch upcoming appointments, following the feed's X-Next-Cursor pages
+            const apptData = await fetchAllPages(`${API_BASE_URL}/api/dashboard/appointments/my-patients`, token);
+            setAppointments(apptData);
 
-            if (apptResponse.ok) {
-                const apptData = await apptResponse.json();
-                setAppointments(Array.isArray(apptData) ? apptData : []);
-
-                // Calculate derived stats
-                if (Array.isArray(apptData)) {
-                    const upcoming = apptData.filter(a => new Date(a.appointmentDate) >= new Date()).length;
-                    setStats(prev => ({
-                        ...prev,
-                        upcoming,
-                        completed: apptData.length - upcoming,
-                        appointments: apptData.length
-                    }));
-                }
-            }
+            const upcoming = apptData.filter(a => new Date(a.appointmentTime) >= new Date()).length;
+            setStats(prev => ({
+                ...prev,
+                upcoming,
+                completed: Math.max(total - upcoming, 0)
+            }));
 
         } catch (error) {
             console.error("Error fetching dashboard data:", error);
@@ -158,7 +168,7 @@ const DoctorDashboard = () => {
                     <StatCard
                         icon={<Users className="w-6 h-6 text-emerald-600" />}
                         label="Total Patients"
-                        value={stats.appointments} // Using appointment count as proxy for patients for now
+                        value={stats.totalPatients}
                         color="bg-emerald-50 dark:bg-emerald-900/20"
                         borderColor="border-emerald-200 dark:border-emerald-800"
                     />
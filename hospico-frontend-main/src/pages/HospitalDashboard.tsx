@@ -190,21 +190,20 @@ const OverviewTab = ({ hospital }: { hospital: Hospital }) => {
         try {
             const token = localStorage.getItem("jwt_token");
 
-            // Fetch appointments for this hospital using the new role-based endpoint
-            const appointmentsResponse = await fetch(
-                `${API_BASE_URL}/api/dashboard/appointments/my-hospital`,
+            // Appointment count from the stats endpoint; the appointment feed is paginated
+            const statsResponse = await fetch(
+                `${API_BASE_URL}/api/dashboard/stats`,
                 { headers: { Authorization: `Bearer ${token}` } }
             );
 
-            if (appointmentsResponse.ok) {
-                const appointments = await appointmentsResponse.json();
-                console.log("Fetched appointments:", appointments); // Debug log
+            if (statsResponse.ok) {
+                const statsData = await statsResponse.json();
                 setStats(prev => ({
                     ...prev,
-                    appointments: Array.isArray(appointments) ? appointments.length : 0
+                    appointments: statsData.appointmentCount || 0
                 }));
             } else {
-                console.error("Failed to fetch appointments:", appointmentsResponse.status);
+                console.error("Failed to fetch stats:", statsResponse.status);
             }
 
             // Fetch doctors for this hospital